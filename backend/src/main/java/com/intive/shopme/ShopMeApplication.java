@@ -11,6 +11,7 @@ import org.springframework.jdbc.datasource.AbstractDataSource;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.EnableRetry;
 import org.springframework.retry.annotation.Retryable;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.servlet.LocaleResolver;
 import org.springframework.web.servlet.i18n.SessionLocaleResolver;
 
@@ -21,6 +22,7 @@ import java.util.Locale;
 
 @SpringBootApplication
 @EnableRetry
+@EnableScheduling
 public class ShopMeApplication {
 
     @Order(Ordered.HIGHEST_PRECEDENCE)
@@ -2,6 +2,7 @@ package com.intive.shopme.category;
 
 import com.intive.shopme.model.db.DbCategory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -14,7 +15,8 @@ class CategoryService {
         this.repository = repository;
     }
 
-    List<DbCategory> getAll() {
+    @Transactional(readOnly = true)
+    public List<DbCategory> getAll() {
         return repository.findAll();
     }
 
@@ -4,6 +4,16 @@ import java.util.Collections;
 
 public final class ApiUrl {
     public static final String OFFERS = "/offers";
+    public final static String OFFERS_FACETS = "facets";
+    public final static String OFFERS_SUGGEST = "suggest";
+    public final static String OFFERS_EXPORT = "export";
+    public final static String OFFERS_IMPORT = "import";
+    public final static String OFFERS_STREAM = "stream";
+    public final static String OFFERS_CHANGES = "changes";
+    public final static String OFFERS_BATCH = "batch";
+
+    public static final String SAVED_SEARCHES = "/saved-searches";
+    public final static String SAVED_SEARCHES_NOTIFICATIONS = "notifications";
 
     public static final String CATEGORIES = "/categories";
 
@@ -25,8 +25,24 @@ public final class AppConfig {
     public static final int DEFAULT_PAGE_SIZE = 10;
     public static final int PAGE_SIZE_MAX = 100;
 
+    public static final int EXPORT_FETCH_SIZE = 500;
+    public static final int OFFERS_BATCH_SIZE_MAX = 200;
+    public static final int OFFERS_BATCH_QUERY_SIZE_MAX = 100;
+    public static final int IMPORT_BATCH_SIZE = 500;
+    public static final int CHANGES_POLL_BATCH_SIZE = 1000;
+
+    public static final int DEFAULT_CHANGES_LIMIT = 100;
+    public static final int CHANGES_LIMIT_MAX = 1000;
+
+    public static final int DEFAULT_SUGGESTIONS_LIMIT = 10;
+    public static final int SUGGESTIONS_LIMIT_MAX = 50;
+
+    public static final int SAVED_SEARCH_QUERY_MAX_LENGTH = 2000;
+    public static final int SAVED_SEARCHES_PER_USER_MAX = 20;
+
     public static final String DEFAULT_SORT_FIELD = "date";
     public static final String DEFAULT_SORT_DIRECTION = "DESC";
+    public static final String RELEVANCE_SORT_FIELD = "relevance";
 
     public static final int PASSWORD_MIN_LENGTH = 8;
     public static final int PASSWORD_MAX_LENGTH = 30;
@@ -42,8 +58,12 @@ public final class AppConfig {
 
     public static final String REST_ENTRY_POINT = "/**";
 
+    public static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+
     public static final String AUTHORIZATION_HEADER = "Authorization";
     public static final String TOKEN_PREFIX = "Bearer ";
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
     public static final String EMAIL_CLAIM_NAME = "email";
     public static final String SCOPES_CLAIM_NAME = "scopes";
 
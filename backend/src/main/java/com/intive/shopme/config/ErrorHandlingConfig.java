@@ -1,9 +1,12 @@
 package com.intive.shopme.config;
 
 import com.intive.shopme.config.security.RevokedTokenUseAttemptException;
+import com.intive.shopme.registration.PasswordHashingBusyException;
 import com.intive.shopme.validation.AlreadyExistException;
+import com.intive.shopme.validation.InvalidRequestParameterException;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -59,6 +62,14 @@ public class ErrorHandlingConfig {
                 .body(createResponseBody(exception.getMessage()));
     }
 
+    @ExceptionHandler(value = InvalidRequestParameterException.class)
+    @ResponseBody
+    public ResponseEntity handleInvalidRequestParameterException(InvalidRequestParameterException exception) {
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(createResponseBody(exception.getMessage()));
+    }
+
     @ExceptionHandler(value = MethodArgumentTypeMismatchException.class)
     @ResponseBody
     public ResponseEntity handleMethodArgumentTypeMismatchException(MethodArgumentTypeMismatchException exception) {
@@ -76,6 +87,15 @@ public class ErrorHandlingConfig {
                 .body(createResponseBody(exception.getMessage()));
     }
 
+    @ExceptionHandler(value = PasswordHashingBusyException.class)
+    @ResponseBody
+    public ResponseEntity handlePasswordHashingBusyException(PasswordHashingBusyException exception) {
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfter()))
+                .body(createResponseBody(exception.getMessage()));
+    }
+
     @ExceptionHandler(value = RuntimeException.class)
     @ResponseBody
     public ResponseEntity handleRuntimeException(RuntimeException exception) {
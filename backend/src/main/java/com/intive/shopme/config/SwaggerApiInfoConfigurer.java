@@ -31,6 +31,10 @@ public final class SwaggerApiInfoConfigurer {
         public static final String REVOKED = "Token that has been revoked";
         public static final String FORBIDDEN = "You are not authorized to do this";
         public static final String BAD_USER_PASS = "Incorrect email and/or password";
+        public static final String BUSY = "Too many requests in progress, retry after the number of seconds given " +
+                "in Retry-After header";
+        public static final String NEXT_CURSOR = "Position of the last returned offer, to be passed as cursor " +
+                "parameter for the next page (present only when there are more offers)";
 
         private Operations() {
         }
@@ -17,6 +17,7 @@ import springfox.documentation.swagger2.annotations.EnableSwagger2;
 import javax.servlet.ServletContext;
 import java.util.Collections;
 
+import static com.intive.shopme.config.AppConfig.NEXT_CURSOR_HEADER;
 import static com.intive.shopme.config.SwaggerApiInfoConfigurer.createApiInfo;
 
 @Configuration
@@ -58,7 +59,8 @@ class SwaggerConfig {
             @Override
             public void addCorsMappings(CorsRegistry registry) {
                 registry.addMapping("/**")
-                        .allowedMethods("GET", "POST", "PUT", "DELETE");
+                        .allowedMethods("GET", "POST", "PUT", "DELETE")
+                        .exposedHeaders(NEXT_CURSOR_HEADER);
             }
         };
     }
@@ -0,0 +1,22 @@
+package com.intive.shopme.config.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties("replica.datasource")
+public class ReplicaDataSourceProperties {
+
+    private String url;
+    private String username;
+    private String password;
+    /**
+     * Maximum delay (in milliseconds) of changes replicated from primary database, above it all transactions are
+     * routed to primary database.
+     */
+    private long maxLag = 5000;
+    /**
+     * Interval (in milliseconds) of replication lag checks.
+     */
+    private long lagCheckInterval = 1000;
+}
@@ -0,0 +1,61 @@
+package com.intive.shopme.config.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+
+/**
+ * Measures replication lag with heartbeat: current time is periodically written to REPLICA_HEARTBEAT in primary
+ * database and read back from replica, the difference is how far behind the replica is.
+ * <p>
+ * Replica is considered up to date only after a successful check, so until then (and whenever it is unavailable or
+ * lagging more than allowed) all transactions use primary database. Current lag is published as
+ * {@value #METRIC_NAME} gauge (in milliseconds, -1 when unknown).
+ */
+@Log4j2
+class ReplicaLagMonitor {
+
+    static final String METRIC_NAME = "datasource.replica.lag";
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final long maxLag;
+    private volatile long lag = -1;
+    private volatile boolean upToDate;
+
+    ReplicaLagMonitor(DataSource primary, DataSource replica, long maxLag, MeterRegistry meterRegistry) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.maxLag = maxLag;
+        meterRegistry.gauge(METRIC_NAME, this, monitor -> monitor.lag);
+    }
+
+    boolean isUpToDate() {
+        return upToDate;
+    }
+
+    @Scheduled(fixedDelayString = "${replica.datasource.lag-check-interval:1000}")
+    void check() {
+        final var now = System.currentTimeMillis();
+        try {
+            primary.update("update REPLICA_HEARTBEAT set DATE = ?", new Timestamp(now));
+            final var replicated = replica.queryForObject("select max(DATE) from REPLICA_HEARTBEAT", Timestamp.class);
+            lag = replicated != null ? Math.max(0, now - replicated.getTime()) : -1;
+        } catch (DataAccessException e) {
+            log.debug("Replication lag cannot be checked: {}", e.getMessage());
+            lag = -1;
+        }
+
+        final var wasUpToDate = upToDate;
+        upToDate = lag >= 0 && lag <= maxLag;
+        if (upToDate != wasUpToDate) {
+            log.info(upToDate ? "Replica is up to date (lag {} ms), read-only transactions are routed to it" :
+                    "Replica is lagging behind (lag {} ms), all transactions are routed to primary", lag);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.intive.shopme.config.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Routes read-only transactions to replica database (as long as it is not lagging behind) and everything else
+ * to primary database.
+ * <p>
+ * Transaction is known to be read-only only after its connection has been requested, so this data source has to be
+ * wrapped in {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, which postpones choosing
+ * the target until the first statement.
+ */
+class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target {
+        PRIMARY, REPLICA
+    }
+
+    private final BooleanSupplier replicaUpToDate;
+
+    ReplicaRoutingDataSource(DataSource primary, DataSource replica, BooleanSupplier replicaUpToDate) {
+        this.replicaUpToDate = replicaUpToDate;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && replicaUpToDate.getAsBoolean()) {
+            return Target.REPLICA;
+        }
+        return Target.PRIMARY;
+    }
+}
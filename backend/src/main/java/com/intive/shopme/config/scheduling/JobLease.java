@@ -0,0 +1,38 @@
+package com.intive.shopme.config.scheduling;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.UUID;
+
+/**
+ * Lets only one of application instances sharing database run a scheduled job at a time: the instance which
+ * acquires lease of the job (a row in JOB_LEASE) keeps it until it expires, others skip the job until then.
+ * <p>
+ * Jobs have to be registered in JOB_LEASE by migration. Lease expiration is compared with instances' clocks, so they
+ * are expected to be synchronized much better than lease duration.
+ */
+@Component
+public class JobLease {
+
+    private static final String ACQUIRE = "update JOB_LEASE set OWNER = ?, EXPIRES_AT = ? " +
+            "where NAME = ? and (OWNER = ? or EXPIRES_AT <= ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String owner = UUID.randomUUID().toString();
+
+    JobLease(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @param duration milliseconds for which no other instance can acquire the lease (also when this one has not
+     *                 released it, e.g. because it has been stopped)
+     * @return whether this instance holds the lease of the job (acquired now or extended)
+     */
+    public boolean acquire(String job, long duration) {
+        final var now = System.currentTimeMillis();
+        return jdbcTemplate.update(ACQUIRE, owner, new Timestamp(now + duration), job, owner, new Timestamp(now)) == 1;
+    }
+}
@@ -0,0 +1,98 @@
+package com.intive.shopme.config.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt password encoder with strength (log rounds) chosen for the hardware the application runs on, see
+ * {@link #calibrate(long, int, int)}. Passwords hashed with a different strength are still verified, and
+ * {@link #upgradeEncoding(String)} tells which of them should be hashed again. Hashes are only made stronger, so
+ * instances using different strengths do not rehash the same password back and forth.
+ * <p>
+ * Strength is published as {@value #STRENGTH_METRIC_NAME} gauge, durations of hashing and verification as
+ * {@value #DURATION_METRIC_NAME} timer histogram.
+ */
+@Log4j2
+public class CalibratedPasswordEncoder implements PasswordEncoder {
+
+    static final String STRENGTH_METRIC_NAME = "password.hashing.strength";
+    static final String DURATION_METRIC_NAME = "password.hashing.duration";
+
+    private static final Pattern BCRYPT_PREFIX = Pattern.compile("\\$2[aby]?\\$(\\d\\d)\\$.*");
+    private static final int CALIBRATION_STRENGTH = 8;
+    private static final int CALIBRATION_RUNS = 5;
+
+    private final int strength;
+    private final BCryptPasswordEncoder delegate;
+    private final Timer encodeDuration;
+    private final Timer matchesDuration;
+
+    public CalibratedPasswordEncoder(int strength, MeterRegistry meterRegistry) {
+        this.strength = strength;
+        this.delegate = new BCryptPasswordEncoder(strength);
+        this.encodeDuration = Timer.builder(DURATION_METRIC_NAME)
+                .tag("operation", "encode")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.matchesDuration = Timer.builder(DURATION_METRIC_NAME)
+                .tag("operation", "matches")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        meterRegistry.gauge(STRENGTH_METRIC_NAME, this, encoder -> encoder.strength);
+    }
+
+    /**
+     * Measures hashing with a low strength and extrapolates it (every next strength doubles the work).
+     *
+     * @return the highest strength between given bounds with hashing expected to take at most {@code targetLatency}
+     * milliseconds ({@code minStrength} if even that is slower)
+     */
+    static int calibrate(long targetLatency, int minStrength, int maxStrength) {
+        final var salt = BCrypt.gensalt(CALIBRATION_STRENGTH);
+        var fastest = Long.MAX_VALUE;
+        for (int i = 0; i < CALIBRATION_RUNS; i++) {
+            final var start = System.nanoTime();
+            BCrypt.hashpw("calibration", salt);
+            fastest = Math.min(fastest, System.nanoTime() - start);
+        }
+
+        final var calibrationMillis = fastest / 1_000_000.0;
+        var result = minStrength;
+        while (result < maxStrength &&
+                calibrationMillis * Math.pow(2, result + 1 - CALIBRATION_STRENGTH) <= targetLatency) {
+            result++;
+        }
+        log.info("Password hashing strength {} chosen, expected hashing time {} ms", result,
+                Math.round(calibrationMillis * Math.pow(2, result - CALIBRATION_STRENGTH)));
+        return result;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return encodeDuration.record(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return matchesDuration.record(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * @return whether password has been hashed with a lower strength than the current one (and it should be hashed
+     * again, after being verified)
+     */
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+
+        final var matcher = BCRYPT_PREFIX.matcher(encodedPassword);
+        return matcher.matches() && Integer.parseInt(matcher.group(1)) < strength;
+    }
+}
@@ -11,6 +11,7 @@ import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -18,11 +19,14 @@ import java.util.Set;
 class JwtAuthenticationProvider implements AuthenticationProvider {
 
     private final JwtParser jwtParser;
+    private final VerifiedTokenCache verifiedTokenCache;
     private final RevokedTokenService revokedTokenService;
 
     @Autowired
-    public JwtAuthenticationProvider(JwtParser jwtParser, RevokedTokenService revokedTokenService) {
+    public JwtAuthenticationProvider(JwtParser jwtParser, VerifiedTokenCache verifiedTokenCache,
+                                     RevokedTokenService revokedTokenService) {
         this.jwtParser = jwtParser;
+        this.verifiedTokenCache = verifiedTokenCache;
         this.revokedTokenService = revokedTokenService;
     }
 
@@ -33,17 +37,21 @@ class JwtAuthenticationProvider implements AuthenticationProvider {
             return JwtAuthenticationToken.anonymous();
         }
 
-        final var claims = jwtParser.parse(token);
-        final var grantedAuthorities = convertToGrantedAuthorities(claims);
-        final var userContext = new UserContext(JwtParser.getUserId(claims), JwtParser.getEmail(claims), grantedAuthorities, JwtParser.getExpirationDate(claims));
-
+        final var userContext = verifiedTokenCache.get(token, this::verify);
         if (!revokedTokenService.isRevoked(userContext)) {
-            return new JwtAuthenticationToken(userContext, grantedAuthorities);
+            return new JwtAuthenticationToken(userContext, userContext.getAuthorities());
         } else {
             throw new RevokedTokenUseAttemptException("Token has been revoked");
         }
     }
 
+    private UserContext verify(String token) {
+        final var claims = jwtParser.parse(token);
+        final var grantedAuthorities = convertToGrantedAuthorities(claims);
+        return new UserContext(JwtParser.getUserId(claims), JwtParser.getEmail(claims),
+                Collections.unmodifiableSet(grantedAuthorities), JwtParser.getExpirationDate(claims));
+    }
+
     private Set<GrantedAuthority> convertToGrantedAuthorities(Claims claims) {
         Set<GrantedAuthority> set = new HashSet<>();
         for (Object scope : JwtParser.getScopes(claims)) {
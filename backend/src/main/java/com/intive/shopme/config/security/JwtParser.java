@@ -22,19 +22,16 @@ class JwtParser {
     private static final String INVALID_TOKEN_SIGNATURE = "Invalid token signature";
     private static final String TOKEN_EXPIRED = "Expired token";
 
-    private final String secret;
+    private final io.jsonwebtoken.JwtParser parser;
 
     @Autowired
     public JwtParser(@Value("${jwt.secret}") String secret) {
-        this.secret = secret;
+        this.parser = Jwts.parser().setSigningKey(TextCodec.BASE64.decode(secret));
     }
 
     Claims parse(final String token) {
         try {
-            return Jwts.parser()
-                    .setSigningKey(TextCodec.BASE64.decode(secret))
-                    .parseClaimsJws(token)
-                    .getBody();
+            return parser.parseClaimsJws(token).getBody();
         } catch (UnsupportedJwtException | MalformedJwtException | IllegalArgumentException e) {
             throw new JwtAuthenticationException(INVALID_TOKEN);
         } catch (SignatureException e) {
@@ -1,6 +1,8 @@
 package com.intive.shopme.config.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -10,8 +12,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 import static com.intive.shopme.config.ApiUrl.ALLOW_UNAUTHENTICATED_ACCESS;
@@ -23,10 +23,6 @@ import static com.intive.shopme.config.AppConfig.REST_ENTRY_POINT;
 @EnableGlobalMethodSecurity(prePostEnabled = true)
 public class SpringSecurityConfig extends WebSecurityConfigurerAdapter {
 
-    /**
-     * Bcrypt log rounds to use, between 4 and 31
-     */
-    private static final int HASHING_STRENGTH = 11;
     private final JwtAuthenticationProvider jwtAuthenticationProvider;
 
     @Autowired
@@ -55,9 +51,18 @@ public class SpringSecurityConfig extends WebSecurityConfigurerAdapter {
                 .and().addFilterBefore(getAuthenticationFilter(), UsernamePasswordAuthenticationFilter.class);
     }
 
+    /**
+     * @param strength Bcrypt log rounds to use, between 4 and 31, or 0 to choose the highest one with hashing not
+     *                 slower than {@code targetLatency} milliseconds
+     */
     @Bean
-    public PasswordEncoder encoder() {
-        return new BCryptPasswordEncoder(HASHING_STRENGTH);
+    public CalibratedPasswordEncoder encoder(@Value("${password.hashing.strength}") int strength,
+                                             @Value("${password.hashing.target-latency}") long targetLatency,
+                                             @Value("${password.hashing.min-strength}") int minStrength,
+                                             @Value("${password.hashing.max-strength}") int maxStrength,
+                                             MeterRegistry meterRegistry) {
+        return new CalibratedPasswordEncoder(strength > 0 ? strength :
+                CalibratedPasswordEncoder.calibrate(targetLatency, minStrength, maxStrength), meterRegistry);
     }
 
     @Bean
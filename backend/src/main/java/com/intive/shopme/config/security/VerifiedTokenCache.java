@@ -0,0 +1,89 @@
+package com.intive.shopme.config.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.intive.shopme.model.rest.UserContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Cache of users' contexts read from tokens with verified signature, so a client sending the same token with every
+ * request pays for signature verification once. Tokens are kept only as SHA-256 digests, and every entry expires
+ * together with its token (tokens without expiration are not cached). Revocation is not cached, it has to be
+ * checked on every use of the token.
+ * <p>
+ * Hit and miss statistics are published as {@value #METRIC_NAME} cache metrics.
+ */
+@Component
+class VerifiedTokenCache {
+
+    static final String METRIC_NAME = "tokens.verified";
+
+    private final Cache<String, UserContext> contexts;
+
+    VerifiedTokenCache(@Value("${jwt.verified-cache.maximum-size}") long maximumSize, MeterRegistry meterRegistry) {
+        this.contexts = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, contexts, METRIC_NAME);
+    }
+
+    /**
+     * @param verify reads user's context from token with not yet verified signature, throws if it is not valid
+     */
+    UserContext get(String token, Function<String, UserContext> verify) {
+        final var digest = digest(token);
+        var result = contexts.getIfPresent(digest);
+        if (result == null) {
+            result = verify.apply(token);
+            if (result.getExpirationDate() != null) {
+                contexts.put(digest, result);
+            }
+        } else if (result.getExpirationDate().getTime() <= System.currentTimeMillis()) {
+            // expiration in cache is not precise, the token itself is verified again to report it expired
+            contexts.invalidate(digest);
+            result = verify.apply(token);
+        }
+        return result;
+    }
+
+    private static String digest(String token) {
+        try {
+            final var sha256 = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class TokenExpiry implements Expiry<String, UserContext> {
+
+        @Override
+        public long expireAfterCreate(String digest, UserContext context, long currentTime) {
+            final var validity = context.getExpirationDate().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, validity));
+        }
+
+        @Override
+        public long expireAfterUpdate(String digest, UserContext context, long currentTime, long currentDuration) {
+            return expireAfterCreate(digest, context, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String digest, UserContext context, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
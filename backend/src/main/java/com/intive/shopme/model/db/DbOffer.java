@@ -33,6 +33,7 @@ public class DbOffer extends DbIdentifiable {
     @ManyToOne
     private DbVoivodeship voivodeship;
     private String city;
+    private String searchTerms;
 
     public boolean isExtendedPresent() {
         return StringUtils.isNotEmpty(extendedDescription) || extendedPrice != null;
@@ -0,0 +1,32 @@
+package com.intive.shopme.model.db;
+
+import com.intive.shopme.model.rest.OfferEvent;
+import lombok.Data;
+
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Entry of offers change log, numbered in commit order, so clients can fetch only changes following the last one they
+ * have seen. Entries are written only with plain SQL, together with the changed offers.
+ */
+@Entity
+@Table(name = "OFFER_CHANGE")
+@Data
+public class DbOfferChange {
+
+    @Id
+    private Long seq;
+
+    private UUID offerId;
+
+    @Enumerated(EnumType.STRING)
+    private OfferEvent.Type type;
+
+    private Date date;
+}
@@ -0,0 +1,77 @@
+package com.intive.shopme.model.db;
+
+import lombok.Data;
+import org.hibernate.annotations.Type;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Read model of offer: offer properties together with names of its category and voivodeship and owner's public
+ * contact details in a single row, so offers can be listed without joining other tables.
+ * <p>
+ * Written in the same transaction as {@link DbOffer} and its owner {@link DbUser}.
+ */
+@Entity
+@Table(name = "OFFER_READ")
+@Data
+public class DbOfferRead {
+
+    @Id
+    @Type(type = "org.hibernate.type.PostgresUUIDType")
+    private UUID id;
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date date;
+    private String title;
+    private String category;
+    private String baseDescription;
+    private Double basePrice;
+    private String extendedDescription;
+    private Double extendedPrice;
+    private String extraDescription;
+    private Double extraPrice;
+    private UUID userId;
+    private String name;
+    private String surname;
+    private String email;
+    private String phoneNumber;
+    private String additionalInfo;
+    private String voivodeship;
+    private String city;
+    private String searchTerms;
+
+    public static DbOfferRead of(DbOffer offer) {
+        final var result = new DbOfferRead();
+
+        result.setId(offer.getId());
+        result.setDate(offer.getDate());
+        result.setTitle(offer.getTitle());
+        result.setCategory(offer.getCategory().getName());
+        result.setBaseDescription(offer.getBaseDescription());
+        result.setBasePrice(offer.getBasePrice());
+        result.setExtendedDescription(offer.getExtendedDescription());
+        result.setExtendedPrice(offer.getExtendedPrice());
+        result.setExtraDescription(offer.getExtraDescription());
+        result.setExtraPrice(offer.getExtraPrice());
+        result.setOwner(offer.getUser());
+        result.setVoivodeship(offer.getVoivodeship().getName());
+        result.setCity(offer.getCity());
+        result.setSearchTerms(offer.getSearchTerms());
+
+        return result;
+    }
+
+    public void setOwner(DbUser user) {
+        userId = user.getId();
+        name = user.getName();
+        surname = user.getSurname();
+        email = user.getEmail();
+        phoneNumber = user.getPhoneNumber();
+        additionalInfo = user.getAdditionalInfo();
+    }
+}
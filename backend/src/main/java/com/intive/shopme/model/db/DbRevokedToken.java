@@ -1,6 +1,5 @@
 package com.intive.shopme.model.db;
 
-import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 
@@ -13,12 +12,18 @@ import java.util.UUID;
 @Table(name = "REVOKED_TOKEN")
 @Data
 @EqualsAndHashCode
-@AllArgsConstructor
 public class DbRevokedToken extends DbIdentifiable{
 
     private UUID userId;
     private Date expirationDate;
+    private Date revocationDate;
 
     DbRevokedToken() {
     }
+
+    public DbRevokedToken(UUID userId, Date expirationDate) {
+        this.userId = userId;
+        this.expirationDate = expirationDate;
+        this.revocationDate = new Date();
+    }
 }
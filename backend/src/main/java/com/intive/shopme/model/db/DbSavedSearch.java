@@ -0,0 +1,25 @@
+package com.intive.shopme.model.db;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import javax.persistence.Entity;
+import javax.persistence.Table;
+import java.util.Date;
+import java.util.UUID;
+
+@Entity
+@Table(name = "SAVED_SEARCH")
+@Data
+@EqualsAndHashCode(callSuper = true)
+@AllArgsConstructor
+public class DbSavedSearch extends DbIdentifiable {
+
+    private UUID userId;
+    private String query;
+    private Date date;
+
+    DbSavedSearch() {
+    }
+}
@@ -0,0 +1,20 @@
+package com.intive.shopme.model.rest;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@ApiModel(value = "Offer batch", description = "Represents offers requested by ids")
+public class OfferBatch {
+
+    @ApiModelProperty(value = "Represents found offers, in the order of requested ids", required = true, position = 1)
+    private final List<OfferView> offers;
+
+    @ApiModelProperty(value = "Represents requested ids of offers which do not exist", required = true, position = 2,
+            example = "[\"c5296892-347f-4b2e-b1c6-6faff971f767\"]")
+    private final List<UUID> missing;
+}
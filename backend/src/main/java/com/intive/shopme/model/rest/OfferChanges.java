@@ -0,0 +1,29 @@
+package com.intive.shopme.model.rest;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@ApiModel(value = "Offer changes", description = "Represents offers changed since given change sequence number")
+public class OfferChanges {
+
+    @ApiModelProperty(value = "Represents current state of created and updated offers, in order of their last change",
+            required = true, position = 1)
+    private final List<OfferView> offers;
+
+    @ApiModelProperty(value = "Represents ids of deleted offers", required = true, position = 2,
+            example = "[\"c5296892-347f-4b2e-b1c6-6faff971f767\"]")
+    private final List<UUID> deleted;
+
+    @ApiModelProperty(value = "Represents sequence number of the last returned change, to be passed as since " +
+            "parameter of the next request", required = true, position = 3, example = "42")
+    private final long next;
+
+    @ApiModelProperty(value = "Represents whether there are more changes after the returned ones", required = true,
+            position = 4, example = "false")
+    private final boolean hasMore;
+}
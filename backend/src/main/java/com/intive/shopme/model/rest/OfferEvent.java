@@ -0,0 +1,36 @@
+package com.intive.shopme.model.rest;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Data;
+
+import java.util.Date;
+import java.util.UUID;
+
+@Data
+@ApiModel(value = "Offer event", description = "Represents change of an offer")
+public class OfferEvent {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    @ApiModelProperty(value = "Represents sequence number of the event, sent as SSE event id prefixed with epoch " +
+            "of the stream", required = true, position = 1, example = "42")
+    private final long id;
+
+    @ApiModelProperty(value = "Represents kind of the change", required = true, position = 2, example = "CREATED")
+    private final Type type;
+
+    @ApiModelProperty(value = "Represents id of changed offer", required = true, position = 3,
+            example = "c5296892-347f-4b2e-b1c6-6faff971f767")
+    private final UUID offerId;
+
+    @ApiModelProperty(value = "Represents title of changed offer (absent for deleted offer)", position = 4,
+            example = "Odśnieżanie Niebuszewo")
+    private final String title;
+
+    @ApiModelProperty(value = "Represents date of submitting changed offer (absent for deleted offer)",
+            position = 5, example = "1520031600000")
+    private final Date date;
+}
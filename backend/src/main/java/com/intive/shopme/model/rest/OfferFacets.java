@@ -0,0 +1,29 @@
+package com.intive.shopme.model.rest;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+@ApiModel(value = "Offer facets", description = "Represents numbers of offers matching search criteria, " +
+        "grouped by category, voivodeship and price range (only values having matching offers are present)")
+public class OfferFacets {
+
+    @ApiModelProperty(value = "Represents number of all offers matching search criteria", required = true,
+            position = 1, example = "42")
+    private final Long total;
+
+    @ApiModelProperty(value = "Represents numbers of matching offers per category", required = true, position = 2,
+            example = "{\"others\": 40, \"garden\": 2}")
+    private final Map<String, Long> categories;
+
+    @ApiModelProperty(value = "Represents numbers of matching offers per voivodeship", required = true, position = 3,
+            example = "{\"WesternPomeranian\": 42}")
+    private final Map<String, Long> voivodeships;
+
+    @ApiModelProperty(value = "Represents numbers of matching offers per base price range", required = true,
+            position = 4, example = "{\"0-50\": 30, \"1000+\": 12}")
+    private final Map<String, Long> priceRanges;
+}
@@ -0,0 +1,31 @@
+package com.intive.shopme.model.rest;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+@ApiModel(value = "Offer import result", description = "Represents result of importing single offer")
+public class OfferImportResult {
+
+    @ApiModelProperty(value = "Represents position of the offer in imported ones, starting from 0", required = true,
+            position = 1, example = "0")
+    private final int index;
+
+    @ApiModelProperty(value = "Represents id of the created offer, absent when it has not been imported",
+            position = 2, example = "c5296892-347f-4b2e-b1c6-6faff971f767")
+    private final UUID id;
+
+    @ApiModelProperty(value = "Represents reasons why the offer has not been imported", position = 3)
+    private final String errors;
+
+    public static OfferImportResult imported(int index, UUID id) {
+        return new OfferImportResult(index, id, null);
+    }
+
+    public static OfferImportResult rejected(int index, String errors) {
+        return new OfferImportResult(index, null, errors);
+    }
+}
@@ -0,0 +1,20 @@
+package com.intive.shopme.model.rest;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@ApiModel(value = "Offer suggestions", description = "Represents completions of typed prefix, the most popular first")
+public class OfferSuggestions {
+
+    @ApiModelProperty(value = "Represents lower case titles of offers starting with the prefix", required = true,
+            position = 1, example = "[\"odśnieżanie\", \"odśnieżanie niebuszewo\"]")
+    private final List<String> titles;
+
+    @ApiModelProperty(value = "Represents lower case names of cities starting with the prefix", required = true,
+            position = 2, example = "[\"szczecin\"]")
+    private final List<String> cities;
+}
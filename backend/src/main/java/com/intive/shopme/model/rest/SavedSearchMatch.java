@@ -0,0 +1,29 @@
+package com.intive.shopme.model.rest;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Data;
+
+import java.util.Date;
+import java.util.UUID;
+
+@Data
+@ApiModel(value = "Saved search match", description = "Represents new offer matching user's saved search")
+public class SavedSearchMatch {
+
+    @ApiModelProperty(value = "Represents id of matched saved search", required = true, position = 1,
+            example = "5d214c01-95c3-4ec4-8f68-51dfb80b191c")
+    private final UUID savedSearchId;
+
+    @ApiModelProperty(value = "Represents id of new offer", required = true, position = 2,
+            example = "c5296892-347f-4b2e-b1c6-6faff971f767")
+    private final UUID offerId;
+
+    @ApiModelProperty(value = "Represents title of new offer", required = true, position = 3,
+            example = "Odśnieżanie Niebuszewo")
+    private final String title;
+
+    @ApiModelProperty(value = "Represents date of submitting new offer (EPOCH time in milliseconds)",
+            required = true, position = 4, example = "1520031600000")
+    private final Date date;
+}
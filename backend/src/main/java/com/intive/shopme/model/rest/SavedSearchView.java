@@ -0,0 +1,25 @@
+package com.intive.shopme.model.rest;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Data;
+
+import java.util.Date;
+import java.util.UUID;
+
+@Data
+@ApiModel(value = "Saved search view", description = "Represents offers search saved by user")
+public class SavedSearchView {
+
+    @ApiModelProperty(value = "Represents unique id number", required = true, position = 1,
+            example = "5d214c01-95c3-4ec4-8f68-51dfb80b191c")
+    private UUID id;
+
+    @ApiModelProperty(value = "Represents query string of offers search", required = true, position = 2,
+            example = "category=garden&voivodeship=WesternPomeranian&title=trawa")
+    private String query;
+
+    @ApiModelProperty(value = "Represents date of saving the search (EPOCH time in milliseconds)", required = true,
+            position = 3, example = "1520031600000")
+    private Date date;
+}
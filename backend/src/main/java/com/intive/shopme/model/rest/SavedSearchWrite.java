@@ -0,0 +1,22 @@
+package com.intive.shopme.model.rest;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Data;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+
+import static com.intive.shopme.config.AppConfig.SAVED_SEARCH_QUERY_MAX_LENGTH;
+
+@Data
+@ApiModel(value = "Saved search", description = "Represents offers search to be notified about new matching offers")
+public class SavedSearchWrite {
+
+    @NotEmpty
+    @Size(max = SAVED_SEARCH_QUERY_MAX_LENGTH)
+    @ApiModelProperty(value = "Represents query string of offers search, with the same filter parameters as " +
+            "GET /offers accepts (paging and sort parameters are ignored)", required = true,
+            example = "category=garden&voivodeship=WesternPomeranian&title=trawa")
+    private String query;
+}
@@ -0,0 +1,59 @@
+package com.intive.shopme.offer;
+
+import com.intive.shopme.model.db.DbOffer;
+import lombok.Data;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Immutable copy of offer properties which offers can be searched by, kept in memory by {@link IndexedOffers}.
+ */
+@Data
+class IndexedOffer {
+
+    private final UUID id;
+    private final Date date;
+    private final String title;
+    private final Double basePrice;
+    private final String category;
+    private final String voivodeship;
+    private final String city;
+    private final UUID userId;
+    /**
+     * Base, extended and extra descriptions joined together.
+     */
+    private final String description;
+    /**
+     * Analyzed terms of title and descriptions, see {@link OfferAnalyzer#searchTerms(String...)}.
+     */
+    private final String searchTerms;
+
+    static IndexedOffer of(DbOffer offer) {
+        return new IndexedOffer(offer.getId(), offer.getDate(), offer.getTitle(), offer.getBasePrice(),
+                offer.getCategory().getName(), offer.getVoivodeship().getName(), offer.getCity(),
+                offer.getUser().getId(), joinDescriptions(offer.getBaseDescription(),
+                offer.getExtendedDescription(), offer.getExtraDescription()), offer.getSearchTerms());
+    }
+
+    static IndexedOffer of(OfferReadRepository.OfferFields offer) {
+        return new IndexedOffer(offer.getId(), offer.getDate(), offer.getTitle(), offer.getBasePrice(),
+                offer.getCategory(), offer.getVoivodeship(), offer.getCity(), offer.getUserId(),
+                joinDescriptions(offer.getBaseDescription(), offer.getExtendedDescription(),
+                        offer.getExtraDescription()), offer.getSearchTerms());
+    }
+
+    /**
+     * @return keys of all offers groups the offer belongs to
+     * @see OfferCriterion#group()
+     */
+    List<String> groups() {
+        return List.of("user:" + userId, "category:" + category, "voivodeship:" + voivodeship);
+    }
+
+    private static String joinDescriptions(String... descriptions) {
+        return StringUtils.joinWith(" ", (Object[]) descriptions).trim();
+    }
+}
@@ -0,0 +1,104 @@
+package com.intive.shopme.offer;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Searchable properties of all offers, loaded once at startup and then kept up to date by {@link OfferService}.
+ * In-memory search structures ({@link OfferChangeListener}s) are built from it instead of querying OFFER_READ on
+ * their own.
+ * <p>
+ * Changes are applied in the order of their sequence numbers in the change log: concurrently committed changes of an
+ * offer may come in a different order, and the older one is then ignored instead of overwriting the newer one.
+ * Offers are loaded after reading the sequence number of the last committed change, so changes up to it are already
+ * included, and later ones are applied on top of them.
+ */
+@Log4j2
+@Component
+class IndexedOffers {
+
+    private final OfferReadRepository repository;
+    private final OfferChangeLog changeLog;
+    private final Map<UUID, IndexedOffer> offers = new ConcurrentHashMap<>();
+    private final Map<UUID, Long> versions = new HashMap<>();
+    private final Map<UUID, Long> deletedVersions = new HashMap<>();
+    private long loadedSeq;
+
+    IndexedOffers(OfferReadRepository repository, OfferChangeLog changeLog) {
+        this.repository = repository;
+        this.changeLog = changeLog;
+    }
+
+    @PostConstruct
+    void load() {
+        loadedSeq = changeLog.lastSeq();
+        for (OfferReadRepository.OfferFields offer : repository.findAllFields()) {
+            offers.put(offer.getId(), IndexedOffer.of(offer));
+        }
+        log.info("Loaded {} offers (up to change {})", offers.size(), loadedSeq);
+    }
+
+    /**
+     * @return sequence number of the last change included in offers loaded at startup
+     */
+    long getLoadedSeq() {
+        return loadedSeq;
+    }
+
+    Collection<IndexedOffer> getAll() {
+        return Collections.unmodifiableCollection(offers.values());
+    }
+
+    IndexedOffer get(UUID id) {
+        return offers.get(id);
+    }
+
+    /**
+     * Applies change of the offer and passes it to the listener, unless a later change of the offer has already been
+     * applied. Listener is called in the order of applied changes.
+     *
+     * @param current offer after the change, {@code null} when it has been deleted
+     * @param seq     sequence number of the change
+     */
+    synchronized void apply(UUID id, IndexedOffer current, long seq, OfferChangeListener listener) {
+        if (isApplied(id, seq)) {
+            return;
+        }
+
+        final IndexedOffer previous;
+        if (current != null) {
+            previous = offers.put(id, current);
+            versions.put(id, seq);
+            deletedVersions.remove(id);
+        } else {
+            previous = offers.remove(id);
+            versions.remove(id);
+            deletedVersions.put(id, seq);
+        }
+        if (previous != null || current != null) {
+            listener.offerChanged(previous, current);
+        }
+    }
+
+    /**
+     * @return whether the change or a later one of the offer has already been applied
+     */
+    synchronized boolean isApplied(UUID id, long seq) {
+        return seq <= versions.getOrDefault(id, deletedVersions.getOrDefault(id, loadedSeq));
+    }
+
+    /**
+     * Versions of deleted offers are needed only until no change with lower sequence number can come anymore.
+     */
+    synchronized void forgetDeletedBefore(long seq) {
+        deletedVersions.values().removeIf(deletedSeq -> deletedSeq < seq);
+    }
+}
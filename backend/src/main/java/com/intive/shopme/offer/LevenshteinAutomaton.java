@@ -0,0 +1,61 @@
+package com.intive.shopme.offer;
+
+/**
+ * Automaton accepting words within given edit distance from a fixed word. State is the row of edit distances
+ * between the word prefixes and the input read so far, so it can be walked along a trie and whole subtrees skipped
+ * as soon as no continuation can be accepted.
+ */
+final class LevenshteinAutomaton {
+
+    private final String word;
+    private final int maxDistance;
+    private final int[] start;
+
+    LevenshteinAutomaton(String word, int maxDistance) {
+        this.word = word;
+        this.maxDistance = maxDistance;
+        this.start = new int[word.length() + 1];
+        for (int i = 0; i < start.length; i++) {
+            start[i] = i;
+        }
+    }
+
+    /**
+     * @return initial state, shared by all walks (states are never modified, {@link #step(int[], char)} returns
+     * a new one)
+     */
+    int[] start() {
+        return start;
+    }
+
+    int[] step(int[] state, char input) {
+        final var result = new int[state.length];
+        result[0] = state[0] + 1;
+        for (int i = 1; i < state.length; i++) {
+            final var substitution = state[i - 1] + (word.charAt(i - 1) == input ? 0 : 1);
+            result[i] = Math.min(substitution, Math.min(result[i - 1], state[i]) + 1);
+        }
+        return result;
+    }
+
+    boolean isMatch(int[] state) {
+        return state[state.length - 1] <= maxDistance;
+    }
+
+    boolean canMatch(int[] state) {
+        for (int distance : state) {
+            if (distance <= maxDistance) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    boolean accepts(String input) {
+        var state = start();
+        for (int i = 0; i < input.length() && canMatch(state); i++) {
+            state = step(state, input.charAt(i));
+        }
+        return isMatch(state);
+    }
+}
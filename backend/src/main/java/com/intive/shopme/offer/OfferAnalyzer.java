@@ -0,0 +1,131 @@
+package com.intive.shopme.offer;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static com.intive.shopme.config.AppConfig.ACCEPTABLE_TITLE_SEARCH_CHARS;
+import static com.intive.shopme.config.AppConfig.OFFER_TITLE_MAX_LENGTH;
+
+/**
+ * Analyzes offer texts the same way for every offer index and search.
+ * <p>
+ * {@link #tokenize(String)} splits texts on every character that cannot be a part of a title search keyword, so
+ * "keyword is a substring of some term" gives exactly the same answer as {@code lower(text) LIKE '%keyword%'}.
+ * <p>
+ * {@link #analyze(String)} additionally folds Polish diacritics, drops stopwords and strips inflectional suffixes
+ * (light stemming), so different grammatical forms of a word give the same term. Analyzed terms of every offer are
+ * computed once when offer is saved and stored in {@code OFFER.SEARCH_TERMS}.
+ */
+final class OfferAnalyzer {
+
+    private static final Pattern TERM_SEPARATOR = Pattern.compile("[^" + ACCEPTABLE_TITLE_SEARCH_CHARS.trim() + "]+");
+    private static final Pattern UNACCEPTABLE_KEYWORD_CHARS = Pattern.compile("[^" + ACCEPTABLE_TITLE_SEARCH_CHARS + "]");
+    private static final Pattern KEYWORD_SEPARATOR = Pattern.compile(" +");
+
+    private static final String DIACRITICS = "ąćęłńóśźż";
+    private static final String FOLDED_DIACRITICS = "acelnoszz";
+
+    private static final Set<String> STOPWORDS = Set.of("a", "aby", "albo", "ale", "ani", "bez", "bo", "by", "byc",
+            "czy", "dla", "do", "i", "ich", "jak", "jest", "jego", "jej", "juz", "lub", "ma", "mi", "na", "nad", "nie",
+            "o", "od", "oraz", "po", "pod", "przez", "przy", "sa", "sie", "ta", "tak", "te", "ten", "to", "tu", "w",
+            "we", "z", "za", "ze");
+
+    /**
+     * Folded inflectional suffixes, the longest first.
+     */
+    private static final List<String> SUFFIXES = List.of("owania", "owanie", "owaniu", "owac", "ania", "anie",
+            "aniu", "enia", "enie", "eniu", "ami", "ach", "ego", "emu", "owi", "ych", "ich", "ymi", "imi", "iem", "cie",
+            "ow", "om", "ie", "a", "e", "i", "o", "u", "y");
+    private static final int MIN_STEM_LENGTH = 3;
+
+    private OfferAnalyzer() {
+    }
+
+    /**
+     * @return lower case term with Polish diacritics replaced by their base letters
+     */
+    static String fold(String term) {
+        final var result = term.toLowerCase().toCharArray();
+        for (int i = 0; i < result.length; i++) {
+            final var diacritic = DIACRITICS.indexOf(result[i]);
+            if (diacritic >= 0) {
+                result[i] = FOLDED_DIACRITICS.charAt(diacritic);
+            }
+        }
+        return new String(result);
+    }
+
+    /**
+     * @return terms in order of appearance in the text, including repeated ones
+     */
+    static List<String> tokenize(String text) {
+        final List<String> result = new ArrayList<>();
+        if (StringUtils.isEmpty(text)) {
+            return result;
+        }
+
+        for (String term : TERM_SEPARATOR.split(text.toLowerCase())) {
+            if (!term.isEmpty()) {
+                result.add(term);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return lower case title search keywords of at least two characters (none for purely numeric query)
+     */
+    static List<String> keywords(String query) {
+        final List<String> result = new ArrayList<>();
+        if (query.length() > 1 && !StringUtils.isNumeric(query)) {
+            final var acceptable = UNACCEPTABLE_KEYWORD_CHARS.matcher(StringUtils.left(query, OFFER_TITLE_MAX_LENGTH))
+                    .replaceAll("");
+            for (String keyword : KEYWORD_SEPARATOR.split(acceptable.toLowerCase())) {
+                if (keyword.length() > 1) {
+                    result.add(keyword);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return distinct folded and stemmed terms of the text, without stopwords
+     */
+    static Set<String> analyze(String text) {
+        final Set<String> result = new LinkedHashSet<>();
+        for (String term : tokenize(text)) {
+            final var folded = fold(term);
+            if (!STOPWORDS.contains(folded)) {
+                result.add(stem(folded));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return analyzed terms of all texts, separated and surrounded by single spaces (so every term can be found
+     * with {@code LIKE '% term %'}), as stored in {@code OFFER.SEARCH_TERMS}
+     */
+    static String searchTerms(String... texts) {
+        final Set<String> terms = new LinkedHashSet<>();
+        for (String text : texts) {
+            terms.addAll(analyze(text));
+        }
+        return " " + String.join(" ", terms) + " ";
+    }
+
+    static String stem(String term) {
+        for (String suffix : SUFFIXES) {
+            if (term.endsWith(suffix) && term.length() - suffix.length() >= MIN_STEM_LENGTH) {
+                return term.substring(0, term.length() - suffix.length());
+            }
+        }
+        return term;
+    }
+}
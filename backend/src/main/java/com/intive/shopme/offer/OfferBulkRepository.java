@@ -0,0 +1,58 @@
+package com.intive.shopme.offer;
+
+import com.intive.shopme.model.db.DbOffer;
+import com.intive.shopme.model.db.DbOfferRead;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Inserts many new offers with plain batched JDBC statements (a single round trip per table), skipping what
+ * {@code save} of JPA repositories does for every entity: checking whether it already exists and flushing it
+ * separately.
+ * <p>
+ * Statements are executed in the current transaction, changes are logged separately by {@link OfferChangeLog}.
+ */
+@Repository
+class OfferBulkRepository {
+
+    private static final String INSERT_OFFER = "insert into OFFER (ID, DATE, TITLE, CATEGORY_NAME, " +
+            "BASE_DESCRIPTION, BASE_PRICE, EXTENDED_DESCRIPTION, EXTENDED_PRICE, EXTRA_DESCRIPTION, EXTRA_PRICE, " +
+            "USER_ID, VOIVODESHIP_NAME, CITY, SEARCH_TERMS) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_OFFER_READ = "insert into OFFER_READ (ID, DATE, TITLE, CATEGORY, " +
+            "BASE_DESCRIPTION, BASE_PRICE, EXTENDED_DESCRIPTION, EXTENDED_PRICE, EXTRA_DESCRIPTION, EXTRA_PRICE, " +
+            "USER_ID, NAME, SURNAME, EMAIL, PHONE_NUMBER, ADDITIONAL_INFO, VOIVODESHIP, CITY, SEARCH_TERMS) " +
+            "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    OfferBulkRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @param offers new offers, with ids and search terms already set
+     */
+    void insertAll(List<DbOffer> offers) {
+        jdbcTemplate.batchUpdate(INSERT_OFFER, offers.stream()
+                .map(offer -> new Object[]{offer.getId(), new Timestamp(offer.getDate().getTime()), offer.getTitle(),
+                        offer.getCategory().getName(), offer.getBaseDescription(), offer.getBasePrice(),
+                        offer.getExtendedDescription(), offer.getExtendedPrice(), offer.getExtraDescription(),
+                        offer.getExtraPrice(), offer.getUser().getId(), offer.getVoivodeship().getName(),
+                        offer.getCity(), offer.getSearchTerms()})
+                .collect(toList()));
+        jdbcTemplate.batchUpdate(INSERT_OFFER_READ, offers.stream()
+                .map(DbOfferRead::of)
+                .map(offer -> new Object[]{offer.getId(), new Timestamp(offer.getDate().getTime()), offer.getTitle(),
+                        offer.getCategory(), offer.getBaseDescription(), offer.getBasePrice(),
+                        offer.getExtendedDescription(), offer.getExtendedPrice(), offer.getExtraDescription(),
+                        offer.getExtraPrice(), offer.getUserId(), offer.getName(), offer.getSurname(),
+                        offer.getEmail(), offer.getPhoneNumber(), offer.getAdditionalInfo(), offer.getVoivodeship(),
+                        offer.getCity(), offer.getSearchTerms()})
+                .collect(toList()));
+    }
+}
@@ -0,0 +1,14 @@
+package com.intive.shopme.offer;
+
+/**
+ * Notified by {@link OfferService} about every saved or deleted offer, so in-memory search structures follow
+ * database state without reloading it.
+ */
+interface OfferChangeListener {
+
+    /**
+     * @param previous offer before the change, {@code null} when offer has just been created
+     * @param current  offer after the change, {@code null} when offer has been deleted
+     */
+    void offerChanged(IndexedOffer previous, IndexedOffer current);
+}
@@ -0,0 +1,134 @@
+package com.intive.shopme.offer;
+
+import com.intive.shopme.model.rest.OfferEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.LongConsumer;
+
+/**
+ * Writes offer changes to OFFER_CHANGE in the transaction changing the offers, numbered in commit order.
+ * <p>
+ * Numbers taken when the change is made would let a client see change n + 1 committed earlier, and then miss change n
+ * forever. So changes are collected until the transaction is about to commit, and only then numbered with
+ * OFFER_CHANGE_COUNTER, which row stays locked until the commit. When any change is visible, all changes with lower
+ * numbers have already been committed (or rolled back). Offers are flushed before, so the counter is locked only for
+ * the time of inserting changes.
+ */
+@Repository
+class OfferChangeLog {
+
+    private static final String INCREMENT_COUNTER = "update OFFER_CHANGE_COUNTER set LAST_SEQ = LAST_SEQ + ?";
+    private static final String SELECT_COUNTER = "select LAST_SEQ from OFFER_CHANGE_COUNTER";
+    private static final String INSERT_OFFER_CHANGE = "insert into OFFER_CHANGE (SEQ, OFFER_ID, TYPE, DATE) " +
+            "values (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NavigableSet<Long> committing = new ConcurrentSkipListSet<>();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    OfferChangeLog(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @param onCommit called after commit with sequence number of the change, changes of the transaction in their
+     *                 order
+     * @throws IllegalStateException when there is no transaction, changes cannot be logged apart from offers
+     */
+    void append(UUID offerId, OfferEvent.Type type, LongConsumer onCommit) {
+        transactionChanges().add(new PendingChange(offerId, type, onCommit));
+    }
+
+    /**
+     * @return the lowest sequence number of changes committed by this instance, which {@code onCommit} callbacks
+     * may not have been called yet, {@link Long#MAX_VALUE} when there are none
+     */
+    long lowestSeqCommitting() {
+        return committing.isEmpty() ? Long.MAX_VALUE : committing.first();
+    }
+
+    /**
+     * @return sequence number of the last committed change
+     */
+    long lastSeq() {
+        return jdbcTemplate.queryForObject(SELECT_COUNTER, Long.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<PendingChange> transactionChanges() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Offer changes have to be logged in the transaction changing offers");
+        }
+
+        final var pending = (List<PendingChange>) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) {
+            return pending;
+        }
+
+        final List<PendingChange> result = new ArrayList<>();
+        TransactionSynchronizationManager.bindResource(this, result);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                insert(result);
+            }
+
+            @Override
+            public void afterCommit() {
+                result.forEach(change -> change.onCommit.accept(change.seq));
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(OfferChangeLog.this);
+                if (!result.isEmpty() && result.get(0).seq != 0) {
+                    committing.remove(result.get(0).seq);
+                }
+            }
+        });
+        return result;
+    }
+
+    private void insert(List<PendingChange> changes) {
+        entityManager.flush();
+        jdbcTemplate.update(INCREMENT_COUNTER, changes.size());
+        final long lastSeq = jdbcTemplate.queryForObject(SELECT_COUNTER, Long.class);
+
+        var seq = lastSeq - changes.size() + 1;
+        committing.add(seq);
+        final var date = new Timestamp(System.currentTimeMillis());
+        final List<Object[]> rows = new ArrayList<>(changes.size());
+        for (PendingChange change : changes) {
+            change.seq = seq++;
+            rows.add(new Object[]{change.seq, change.offerId, change.type.name(), date});
+        }
+        jdbcTemplate.batchUpdate(INSERT_OFFER_CHANGE, rows);
+    }
+
+    private static final class PendingChange {
+
+        private final UUID offerId;
+        private final OfferEvent.Type type;
+        private final LongConsumer onCommit;
+        private long seq;
+
+        private PendingChange(UUID offerId, OfferEvent.Type type, LongConsumer onCommit) {
+            this.offerId = offerId;
+            this.type = type;
+            this.onCommit = onCommit;
+        }
+    }
+}
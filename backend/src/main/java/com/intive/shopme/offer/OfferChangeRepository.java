@@ -0,0 +1,14 @@
+package com.intive.shopme.offer;
+
+import com.intive.shopme.model.db.DbOfferChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+interface OfferChangeRepository extends JpaRepository<DbOfferChange, Long> {
+
+    List<DbOfferChange> findAllBySeqGreaterThanOrderBySeq(long seq, Pageable pageable);
+}
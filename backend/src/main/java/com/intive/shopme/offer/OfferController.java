@@ -1,24 +1,33 @@
 package com.intive.shopme.offer;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.intive.shopme.category.CategoryValidator;
 import com.intive.shopme.common.ConvertibleController;
 import com.intive.shopme.model.db.DbCategory;
 import com.intive.shopme.model.db.DbOffer;
 import com.intive.shopme.model.db.DbVoivodeship;
+import com.intive.shopme.model.rest.OfferBatch;
+import com.intive.shopme.model.rest.OfferChanges;
+import com.intive.shopme.model.rest.OfferFacets;
+import com.intive.shopme.model.rest.OfferImportResult;
+import com.intive.shopme.model.rest.OfferSuggestions;
 import com.intive.shopme.model.rest.OfferView;
 import com.intive.shopme.model.rest.OfferWrite;
 import com.intive.shopme.model.rest.Role;
 import com.intive.shopme.model.rest.UserContext;
 import com.intive.shopme.registration.UserService;
+import com.intive.shopme.validation.InvalidRequestParameterException;
 import com.intive.shopme.voivodeship.VoivodeshipValidator;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import io.swagger.annotations.ResponseHeader;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -31,23 +40,49 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import springfox.documentation.annotations.ApiIgnore;
 
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 import static com.intive.shopme.config.ApiUrl.OFFERS;
+import static com.intive.shopme.config.ApiUrl.OFFERS_BATCH;
+import static com.intive.shopme.config.ApiUrl.OFFERS_CHANGES;
+import static com.intive.shopme.config.ApiUrl.OFFERS_EXPORT;
+import static com.intive.shopme.config.ApiUrl.OFFERS_FACETS;
+import static com.intive.shopme.config.ApiUrl.OFFERS_IMPORT;
+import static com.intive.shopme.config.ApiUrl.OFFERS_STREAM;
+import static com.intive.shopme.config.ApiUrl.OFFERS_SUGGEST;
+import static com.intive.shopme.config.AppConfig.CHANGES_LIMIT_MAX;
 import static com.intive.shopme.config.AppConfig.CONSTRAINTS_JSON_KEY;
+import static com.intive.shopme.config.AppConfig.DEFAULT_CHANGES_LIMIT;
+import static com.intive.shopme.config.AppConfig.DEFAULT_SUGGESTIONS_LIMIT;
+import static com.intive.shopme.config.AppConfig.LAST_EVENT_ID_HEADER;
+import static com.intive.shopme.config.AppConfig.NDJSON_MEDIA_TYPE;
+import static com.intive.shopme.config.AppConfig.NEXT_CURSOR_HEADER;
+import static com.intive.shopme.config.AppConfig.OFFERS_BATCH_QUERY_SIZE_MAX;
+import static com.intive.shopme.config.AppConfig.OFFERS_BATCH_SIZE_MAX;
+import static com.intive.shopme.config.AppConfig.SUGGESTIONS_LIMIT_MAX;
 import static com.intive.shopme.config.SwaggerApiInfoConfigurer.Operations.BAD_REQUEST;
 import static com.intive.shopme.config.SwaggerApiInfoConfigurer.Operations.CREATED;
 import static com.intive.shopme.config.SwaggerApiInfoConfigurer.Operations.DELETED;
 import static com.intive.shopme.config.SwaggerApiInfoConfigurer.Operations.FORBIDDEN;
+import static com.intive.shopme.config.SwaggerApiInfoConfigurer.Operations.NEXT_CURSOR;
 import static com.intive.shopme.config.SwaggerApiInfoConfigurer.Operations.NOT_FOUND;
 import static com.intive.shopme.config.SwaggerApiInfoConfigurer.Operations.SUCCESS;
 import static com.intive.shopme.config.SwaggerApiInfoConfigurer.Operations.UNAUTHORIZED;
@@ -60,14 +95,26 @@ import static com.intive.shopme.config.SwaggerApiInfoConfigurer.Operations.VALID
 public class OfferController extends ConvertibleController<DbOffer, OfferView, OfferWrite> {
 
     private final OfferService service;
+    private final OfferImporter importer;
+    private final OfferTitleIndex titleIndex;
+    private final OfferSearchTermIndex searchTermIndex;
+    private final OfferEventStream eventStream;
+    private final ObjectMapper objectMapper;
     private final UserService userService;
     private final Validator categoryValidator;
     private final Validator voivodeshipValidator;
 
-    OfferController(OfferService service, UserService userService,
-                    CategoryValidator categoryValidator, VoivodeshipValidator voivodeshipValidator) {
+    OfferController(OfferService service, OfferImporter importer, OfferTitleIndex titleIndex,
+                    OfferSearchTermIndex searchTermIndex, OfferEventStream eventStream, ObjectMapper objectMapper,
+                    UserService userService, CategoryValidator categoryValidator,
+                    VoivodeshipValidator voivodeshipValidator) {
         super(DbOffer.class, OfferView.class, OfferWrite.class);
         this.service = service;
+        this.importer = importer;
+        this.titleIndex = titleIndex;
+        this.searchTermIndex = searchTermIndex;
+        this.eventStream = eventStream;
+        this.objectMapper = objectMapper;
         this.userService = userService;
         this.categoryValidator = categoryValidator;
         this.voivodeshipValidator = voivodeshipValidator;
@@ -100,6 +147,28 @@ public class OfferController extends ConvertibleController<DbOffer, OfferView, O
         return new ResponseEntity<>(convertToView(service.createOrUpdate(dbOffer)), HttpStatus.CREATED);
     }
 
+    @PostMapping(value = OFFERS_IMPORT, consumes = {NDJSON_MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE})
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = SUCCESS),
+            @ApiResponse(code = 401, message = UNAUTHORIZED)
+    })
+    @ApiOperation(value = "Saves new offers sent as newline delimited JSON (or JSON array), returns result of every " +
+            "offer: id of the created one or validation errors. Import stops at malformed JSON, offers before it " +
+            "are saved")
+    @PreAuthorize("hasAnyAuthority('USER')")
+    List<OfferImportResult> importOffers(@ApiIgnore InputStream offers,
+                                         @ApiIgnore @AuthenticationPrincipal UserContext userContext)
+            throws IOException {
+        final var authenticatedUser = userService.get(userContext.getUserId());
+        return importer.importOffers(offers, offer -> {
+            final var dbOffer = convertToDbModel(offer);
+            dbOffer.setId(UUID.randomUUID());
+            dbOffer.setDate(new Date());
+            dbOffer.setUser(authenticatedUser);
+            return dbOffer;
+        });
+    }
+
     private static String createErrorString(Errors errors) {
         return errors.getAllErrors().stream()
                 .map(ObjectError::toString)
@@ -108,26 +177,162 @@ public class OfferController extends ConvertibleController<DbOffer, OfferView, O
 
     @GetMapping
     @ApiResponses(value = {
-            @ApiResponse(code = 200, message = SUCCESS),
+            @ApiResponse(code = 200, message = SUCCESS, responseHeaders = @ResponseHeader(name = NEXT_CURSOR_HEADER,
+                    description = NEXT_CURSOR, response = String.class)),
             @ApiResponse(code = 400, message = BAD_REQUEST),
             @ApiResponse(code = 422, message = VALIDATION_ERROR)
     })
     @ApiOperation(value = "Returns all existing offers (with optional paging, filter criteria and sort strategy)")
-    Page<OfferView> search(@Valid OfferSearchParams offerSearchParams) {
-        final var filter = offerSearchParams.filter();
+    ResponseEntity<Slice<OfferView>> search(@Valid OfferSearchParams offerSearchParams) {
+        final var filter = offerSearchParams.filter(titleIndex, searchTermIndex);
+        final var pageable = offerSearchParams.pageable();
+        if (offerSearchParams.relevanceSort()) {
+            return ResponseEntity.ok(service.getMostRelevant(filter, pageable));
+        }
+
+        final Slice<OfferView> result;
+        if (offerSearchParams.cursorPaging() || !offerSearchParams.isCount()) {
+            result = service.getSlice(filter, pageable);
+        } else {
+            result = service.getAll(filter, pageable);
+        }
 
-        final var userId = offerSearchParams.getUserId();
-        if (userId != null) {
-            if (userService.existsById(userId)) {
-                final var user = userService.get(offerSearchParams.getUserId());
-                filter.with("user", ":", user);
-            } else {
-                filter.empty();
-            }
+        final var response = ResponseEntity.ok();
+        if (result.hasNext()) {
+            final var lastOffer = result.getContent().get(result.getNumberOfElements() - 1);
+            response.header(NEXT_CURSOR_HEADER, offerSearchParams.cursorAfter(lastOffer).encode());
         }
+        return response.body(result);
+    }
 
-        final var offers = service.getAll(filter.build(), offerSearchParams.pageable());
-        return new PageImpl<>(convertToView(offers.getContent()), offerSearchParams.pageable(), offers.getTotalElements());
+    @GetMapping(params = "ids")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = SUCCESS),
+            @ApiResponse(code = 400, message = BAD_REQUEST)
+    })
+    @ApiOperation(value = "Returns offers with given ids in the same order, and ids of offers which do not exist " +
+            "(POST " + OFFERS + "/" + OFFERS_BATCH + " takes more ids)")
+    OfferBatch getBatch(@ApiParam(value = "comma separated ids of offers (max " + OFFERS_BATCH_QUERY_SIZE_MAX + ")",
+                                  required = true)
+                        @RequestParam List<UUID> ids) {
+        return getBatch(ids, OFFERS_BATCH_QUERY_SIZE_MAX);
+    }
+
+    @PostMapping(value = OFFERS_BATCH)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = SUCCESS),
+            @ApiResponse(code = 400, message = BAD_REQUEST)
+    })
+    @ApiOperation(value = "Returns offers with given ids in the same order, and ids of offers which do not exist")
+    OfferBatch postBatch(@ApiParam(value = "ids of offers (max " + OFFERS_BATCH_SIZE_MAX + ")", required = true)
+                         @RequestBody List<UUID> ids) {
+        return getBatch(ids, OFFERS_BATCH_SIZE_MAX);
+    }
+
+    private OfferBatch getBatch(List<UUID> ids, int maxSize) {
+        final var distinctIds = ids.stream().distinct().collect(Collectors.toList());
+        if (distinctIds.isEmpty() || distinctIds.size() > maxSize) {
+            throw new InvalidRequestParameterException("Number of offers ids has to be between 1 and " +
+                    maxSize + ".");
+        }
+        return service.getBatch(distinctIds);
+    }
+
+    @GetMapping(value = OFFERS_EXPORT, produces = NDJSON_MEDIA_TYPE)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = SUCCESS),
+            @ApiResponse(code = 400, message = BAD_REQUEST),
+            @ApiResponse(code = 422, message = VALIDATION_ERROR)
+    })
+    @ApiOperation(value = "Streams all offers matching filter criteria as newline delimited JSON, one offer per line " +
+            "(paging parameters are ignored)")
+    ResponseEntity<StreamingResponseBody> export(@Valid OfferSearchParams offerSearchParams) {
+        offerSearchParams.setCursor(null);
+        final var filter = offerSearchParams.filter(titleIndex, searchTermIndex);
+        final var sort = offerSearchParams.sortBy();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON_MEDIA_TYPE))
+                .body(output -> service.export(filter, sort, offer -> writeLine(output, offer)));
+    }
+
+    private void writeLine(OutputStream output, OfferView offer) {
+        try {
+            output.write(objectMapper.writeValueAsBytes(offer));
+            output.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @GetMapping(value = OFFERS_STREAM, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = SUCCESS)
+    })
+    @ApiOperation(value = "Streams Server-Sent Events of created, updated and deleted offers (\"offer\" events), " +
+            "or \"resync\" event when changes since Last-Event-ID are no longer available and offers have to be " +
+            "reloaded")
+    SseEmitter stream(@ApiParam(value = "id of the last received event, to continue after reconnecting (optional)")
+                      @RequestHeader(value = LAST_EVENT_ID_HEADER, required = false) String lastEventId) {
+        return eventStream.subscribe(lastEventId);
+    }
+
+    @GetMapping(value = OFFERS_CHANGES)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = SUCCESS),
+            @ApiResponse(code = 400, message = BAD_REQUEST)
+    })
+    @ApiOperation(value = "Returns offers created, updated and deleted after given change, the oldest changes first")
+    OfferChanges changes(@ApiParam(value = "sequence number of the last change already seen (next value of the " +
+                                 "previous response, 0 to get all offers)", required = true)
+                         @RequestParam long since,
+                         @ApiParam(value = "maximum number of changes (optional, default " + DEFAULT_CHANGES_LIMIT +
+                                 ", max " + CHANGES_LIMIT_MAX + ")",
+                                 allowableValues = "range[1, " + CHANGES_LIMIT_MAX + "]",
+                                 defaultValue = "" + DEFAULT_CHANGES_LIMIT)
+                         @RequestParam(defaultValue = "" + DEFAULT_CHANGES_LIMIT) int limit) {
+        if (since < 0) {
+            throw new InvalidRequestParameterException("Changes sequence number cannot be negative.");
+        }
+        if (limit < 1 || limit > CHANGES_LIMIT_MAX) {
+            throw new InvalidRequestParameterException("Changes limit has to be between 1 and " +
+                    CHANGES_LIMIT_MAX + ".");
+        }
+        return service.getChanges(since, limit);
+    }
+
+    @GetMapping(value = OFFERS_FACETS)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = SUCCESS),
+            @ApiResponse(code = 422, message = VALIDATION_ERROR)
+    })
+    @ApiOperation(value = "Returns numbers of offers matching filter criteria per category, voivodeship and price " +
+            "range (paging and sort parameters are ignored)")
+    OfferFacets facets(@Valid OfferSearchParams offerSearchParams) {
+        offerSearchParams.setCursor(null);
+        return service.getFacets(offerSearchParams.filter(titleIndex, searchTermIndex));
+    }
+
+    @GetMapping(value = OFFERS_SUGGEST)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = SUCCESS),
+            @ApiResponse(code = 400, message = BAD_REQUEST)
+    })
+    @ApiOperation(value = "Returns the most popular offer titles and cities starting with given prefix")
+    OfferSuggestions suggest(@ApiParam(value = "typed beginning of title or city (case insensitive)", required = true)
+                             @RequestParam String prefix,
+                             @ApiParam(value = "maximum number of titles and of cities (optional, default " +
+                                     DEFAULT_SUGGESTIONS_LIMIT + ", max " + SUGGESTIONS_LIMIT_MAX + ")",
+                                     allowableValues = "range[1, " + SUGGESTIONS_LIMIT_MAX + "]",
+                                     defaultValue = "" + DEFAULT_SUGGESTIONS_LIMIT)
+                             @RequestParam(defaultValue = "" + DEFAULT_SUGGESTIONS_LIMIT) int limit) {
+        if (StringUtils.isBlank(prefix)) {
+            throw new InvalidRequestParameterException("Suggestions prefix cannot be empty.");
+        }
+        if (limit < 1 || limit > SUGGESTIONS_LIMIT_MAX) {
+            throw new InvalidRequestParameterException("Suggestions limit has to be between 1 and " +
+                    SUGGESTIONS_LIMIT_MAX + ".");
+        }
+        return service.getSuggestions(prefix, limit);
     }
 
     @GetMapping(value = "{id}")
@@ -137,7 +342,7 @@ public class OfferController extends ConvertibleController<DbOffer, OfferView, O
     })
     @ApiOperation(value = "Returns offer by id")
     OfferView get(@PathVariable UUID id) {
-        return convertToView(service.get(id));
+        return service.getView(id);
     }
 
     @PutMapping(value = "{id}")
@@ -0,0 +1,36 @@
+package com.intive.shopme.offer;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Short living cache of offers count per search filter, so paging through the same listing does not repeat
+ * count query for every page. Whole cache is invalidated on any offer change.
+ */
+@Component
+class OfferCountCache implements OfferChangeListener {
+
+    private final Cache<Object, Long> counts;
+
+    OfferCountCache(@Value("${offer.count-cache.expiration-time}") long expirationTime,
+                    @Value("${offer.count-cache.maximum-size}") long maximumSize) {
+        this.counts = Caffeine.newBuilder()
+                .expireAfterWrite(expirationTime, TimeUnit.MILLISECONDS)
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    long get(Object filterKey, LongSupplier count) {
+        return counts.get(filterKey, key -> count.getAsLong());
+    }
+
+    @Override
+    public void offerChanged(IndexedOffer previous, IndexedOffer current) {
+        counts.invalidateAll();
+    }
+}
@@ -0,0 +1,574 @@
+package com.intive.shopme.offer;
+
+import com.intive.shopme.model.db.DbOfferRead;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.BitSet;
+import java.util.Date;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Single typed condition of offers search. Criteria are value objects, so duplicated conditions can be dropped when
+ * {@link OfferFilter} is compiled.
+ */
+abstract class OfferCriterion {
+
+    private static final int TWO_EDITS_MIN_LENGTH = 5;
+
+    /**
+     * Estimated selectivity rank, criteria with lower rank narrow down result more and are evaluated first.
+     */
+    private final int rank;
+
+    private OfferCriterion(int rank) {
+        this.rank = rank;
+    }
+
+    int getRank() {
+        return rank;
+    }
+
+    abstract Predicate toPredicate(Root<DbOfferRead> root, CriteriaBuilder builder);
+
+    /**
+     * In-memory counterpart of {@link #toPredicate(Root, CriteriaBuilder)}.
+     */
+    abstract boolean test(IndexedOffer offer);
+
+    /**
+     * Removes offers not meeting the criterion from candidates given as {@link OfferFacetIndex} ordinals. Criteria
+     * having their own bitmaps in the index override it with a single bitmap operation.
+     */
+    void narrow(BitSet candidates, OfferFacetIndex index) {
+        for (int ordinal = candidates.nextSetBit(0); ordinal >= 0; ordinal = candidates.nextSetBit(ordinal + 1)) {
+            if (!test(index.get(ordinal))) {
+                candidates.clear(ordinal);
+            }
+        }
+    }
+
+    /**
+     * @return lower case keyword when the criterion is a title keyword, {@code null} otherwise
+     */
+    String titleKeyword() {
+        return null;
+    }
+
+    /**
+     * @return analyzed term when the criterion is a full text search term, {@code null} otherwise
+     */
+    String searchTerm() {
+        return null;
+    }
+
+    /**
+     * @return key of offers group (e.g. offers of a category) which all offers meeting the criterion belong to,
+     * {@code null} when the criterion does not limit offers to such a group
+     * @see IndexedOffer#groups()
+     */
+    String group() {
+        return null;
+    }
+
+    /**
+     * @return title terms from the index meeting the criterion when it is a title keyword, {@code null} otherwise
+     */
+    Set<String> titleTerms(OfferTitleIndex titleIndex) {
+        return null;
+    }
+
+    /**
+     * Criterion to be used in SQL when too many offers match title keyword to filter them by ids.
+     */
+    OfferCriterion titleFallback(Set<String> titleTerms) {
+        return this;
+    }
+
+    static OfferCriterion nothing() {
+        return new Nothing();
+    }
+
+    static OfferCriterion idIn(Set<UUID> ids) {
+        return new IdIn(Set.copyOf(ids));
+    }
+
+    static OfferCriterion user(UUID userId) {
+        return new User(userId);
+    }
+
+    static OfferCriterion category(String name) {
+        return new Category(name);
+    }
+
+    static OfferCriterion voivodeship(String name) {
+        return new Voivodeship(name);
+    }
+
+    static OfferCriterion cityContains(String city) {
+        return new CityContains(city.toLowerCase());
+    }
+
+    static OfferCriterion titleContains(String keyword) {
+        return new TitleContains(keyword.toLowerCase());
+    }
+
+    /**
+     * Matches titles having a term containing the keyword or different from it by one edit (two edits for keywords
+     * of at least {@value #TWO_EDITS_MIN_LENGTH} characters), ignoring diacritics.
+     */
+    static OfferCriterion titleSimilar(String keyword) {
+        final var lowerCaseKeyword = keyword.toLowerCase();
+        return new TitleSimilar(lowerCaseKeyword, lowerCaseKeyword.length() < TWO_EDITS_MIN_LENGTH ? 1 : 2);
+    }
+
+    /**
+     * @param term single term analyzed by {@link OfferAnalyzer#analyze(String)}
+     */
+    static OfferCriterion searchTerm(String term) {
+        return new SearchTerm(term);
+    }
+
+    static OfferCriterion dateFrom(Date date) {
+        return new DateFrom(date);
+    }
+
+    static OfferCriterion dateTo(Date date) {
+        return new DateTo(date);
+    }
+
+    static OfferCriterion priceFrom(double price) {
+        return new PriceFrom(price);
+    }
+
+    static OfferCriterion priceTo(double price) {
+        return new PriceTo(price);
+    }
+
+    static OfferCriterion after(OfferCursor cursor) {
+        return new After(cursor);
+    }
+
+    @EqualsAndHashCode(callSuper = false)
+    @ToString
+    static final class Nothing extends OfferCriterion {
+
+        private Nothing() {
+            super(0);
+        }
+
+        @Override
+        Predicate toPredicate(Root<DbOfferRead> root, CriteriaBuilder builder) {
+            return builder.disjunction();
+        }
+
+        @Override
+        boolean test(IndexedOffer offer) {
+            return false;
+        }
+
+        @Override
+        void narrow(BitSet candidates, OfferFacetIndex index) {
+            candidates.clear();
+        }
+    }
+
+    @EqualsAndHashCode(callSuper = false)
+    @ToString
+    private static final class IdIn extends OfferCriterion {
+
+        private final Set<UUID> ids;
+
+        private IdIn(Set<UUID> ids) {
+            super(1);
+            this.ids = ids;
+        }
+
+        @Override
+        Predicate toPredicate(Root<DbOfferRead> root, CriteriaBuilder builder) {
+            final Path<UUID> idPath = root.get("id");
+            return idPath.in(ids);
+        }
+
+        @Override
+        boolean test(IndexedOffer offer) {
+            return ids.contains(offer.getId());
+        }
+    }
+
+    @EqualsAndHashCode(callSuper = false)
+    @ToString
+    private static final class User extends OfferCriterion {
+
+        private final UUID userId;
+
+        private User(UUID userId) {
+            super(2);
+            this.userId = userId;
+        }
+
+        @Override
+        Predicate toPredicate(Root<DbOfferRead> root, CriteriaBuilder builder) {
+            final Path<UUID> userIdPath = root.get("userId");
+            return builder.equal(userIdPath, userId);
+        }
+
+        @Override
+        boolean test(IndexedOffer offer) {
+            return userId.equals(offer.getUserId());
+        }
+
+        @Override
+        String group() {
+            return "user:" + userId;
+        }
+    }
+
+    @EqualsAndHashCode(callSuper = false)
+    @ToString
+    private static final class Category extends OfferCriterion {
+
+        private final String name;
+
+        private Category(String name) {
+            super(3);
+            this.name = name;
+        }
+
+        @Override
+        Predicate toPredicate(Root<DbOfferRead> root, CriteriaBuilder builder) {
+            final Path<String> categoryPath = root.get("category");
+            return builder.equal(categoryPath, name);
+        }
+
+        @Override
+        boolean test(IndexedOffer offer) {
+            return name.equals(offer.getCategory());
+        }
+
+        @Override
+        void narrow(BitSet candidates, OfferFacetIndex index) {
+            candidates.and(index.category(name));
+        }
+
+        @Override
+        String group() {
+            return "category:" + name;
+        }
+    }
+
+    @EqualsAndHashCode(callSuper = false)
+    @ToString
+    private static final class Voivodeship extends OfferCriterion {
+
+        private final String name;
+
+        private Voivodeship(String name) {
+            super(4);
+            this.name = name;
+        }
+
+        @Override
+        Predicate toPredicate(Root<DbOfferRead> root, CriteriaBuilder builder) {
+            final Path<String> voivodeshipPath = root.get("voivodeship");
+            return builder.equal(voivodeshipPath, name);
+        }
+
+        @Override
+        boolean test(IndexedOffer offer) {
+            return name.equals(offer.getVoivodeship());
+        }
+
+        @Override
+        void narrow(BitSet candidates, OfferFacetIndex index) {
+            candidates.and(index.voivodeship(name));
+        }
+
+        @Override
+        String group() {
+            return "voivodeship:" + name;
+        }
+    }
+
+    @EqualsAndHashCode(callSuper = false)
+    @ToString
+    private static final class CityContains extends OfferCriterion {
+
+        private final String city;
+
+        private CityContains(String city) {
+            super(5);
+            this.city = city;
+        }
+
+        @Override
+        Predicate toPredicate(Root<DbOfferRead> root, CriteriaBuilder builder) {
+            final Path<String> cityPath = root.get("city");
+            return builder.like(builder.lower(cityPath), "%" + city + "%");
+        }
+
+        @Override
+        boolean test(IndexedOffer offer) {
+            return offer.getCity() != null && offer.getCity().toLowerCase().contains(city);
+        }
+    }
+
+    @EqualsAndHashCode(callSuper = false)
+    @ToString
+    private static final class TitleContains extends OfferCriterion {
+
+        private final String keyword;
+
+        private TitleContains(String keyword) {
+            super(6);
+            this.keyword = keyword;
+        }
+
+        @Override
+        Predicate toPredicate(Root<DbOfferRead> root, CriteriaBuilder builder) {
+            final Path<String> titlePath = root.get("title");
+            return builder.like(builder.lower(titlePath), "%" + keyword + "%");
+        }
+
+        @Override
+        boolean test(IndexedOffer offer) {
+            return offer.getTitle() != null && offer.getTitle().toLowerCase().contains(keyword);
+        }
+
+        @Override
+        String titleKeyword() {
+            return keyword;
+        }
+
+        @Override
+        Set<String> titleTerms(OfferTitleIndex titleIndex) {
+            return titleIndex.termsContaining(keyword);
+        }
+    }
+
+    @EqualsAndHashCode(callSuper = false, of = {"keyword", "maxDistance"})
+    @ToString(of = {"keyword", "maxDistance"})
+    private static final class TitleSimilar extends OfferCriterion {
+
+        private final String keyword;
+        private final int maxDistance;
+        private final String foldedKeyword;
+        private final LevenshteinAutomaton automaton;
+
+        private TitleSimilar(String keyword, int maxDistance) {
+            super(6);
+            this.keyword = keyword;
+            this.maxDistance = maxDistance;
+            this.foldedKeyword = OfferAnalyzer.fold(keyword);
+            this.automaton = new LevenshteinAutomaton(foldedKeyword, maxDistance);
+        }
+
+        /**
+         * Edit distance cannot be evaluated by the database, title keyword has to be replaced with matching terms
+         * found in {@link OfferTitleIndex} first.
+         */
+        @Override
+        Predicate toPredicate(Root<DbOfferRead> root, CriteriaBuilder builder) {
+            throw new IllegalStateException("Similar title terms have to be resolved before querying database");
+        }
+
+        @Override
+        boolean test(IndexedOffer offer) {
+            return OfferAnalyzer.tokenize(offer.getTitle()).stream()
+                    .map(OfferAnalyzer::fold)
+                    .anyMatch(term -> term.contains(foldedKeyword) || automaton.accepts(term));
+        }
+
+        @Override
+        String titleKeyword() {
+            return keyword;
+        }
+
+        @Override
+        Set<String> titleTerms(OfferTitleIndex titleIndex) {
+            return titleIndex.termsSimilar(keyword, maxDistance);
+        }
+
+        @Override
+        OfferCriterion titleFallback(Set<String> titleTerms) {
+            return new TitleContainsAny(Set.copyOf(titleTerms));
+        }
+    }
+
+    @EqualsAndHashCode(callSuper = false)
+    @ToString
+    private static final class TitleContainsAny extends OfferCriterion {
+
+        private final Set<String> terms;
+
+        private TitleContainsAny(Set<String> terms) {
+            super(6);
+            this.terms = terms;
+        }
+
+        @Override
+        Predicate toPredicate(Root<DbOfferRead> root, CriteriaBuilder builder) {
+            final Path<String> titlePath = root.get("title");
+            return builder.or(terms.stream()
+                    .map(term -> builder.like(builder.lower(titlePath), "%" + term + "%"))
+                    .toArray(Predicate[]::new));
+        }
+
+        @Override
+        boolean test(IndexedOffer offer) {
+            final var title = StringUtils.defaultString(offer.getTitle()).toLowerCase();
+            return terms.stream().anyMatch(title::contains);
+        }
+    }
+
+    @EqualsAndHashCode(callSuper = false)
+    @ToString
+    private static final class SearchTerm extends OfferCriterion {
+
+        private final String term;
+
+        private SearchTerm(String term) {
+            super(6);
+            this.term = term;
+        }
+
+        @Override
+        Predicate toPredicate(Root<DbOfferRead> root, CriteriaBuilder builder) {
+            final Path<String> searchTermsPath = root.get("searchTerms");
+            return builder.like(searchTermsPath, "% " + term + " %");
+        }
+
+        @Override
+        boolean test(IndexedOffer offer) {
+            return offer.getSearchTerms() != null && offer.getSearchTerms().contains(" " + term + " ");
+        }
+
+        @Override
+        String searchTerm() {
+            return term;
+        }
+    }
+
+    @EqualsAndHashCode(callSuper = false)
+    @ToString
+    private static final class DateFrom extends OfferCriterion {
+
+        private final Date date;
+
+        private DateFrom(Date date) {
+            super(7);
+            this.date = date;
+        }
+
+        @Override
+        Predicate toPredicate(Root<DbOfferRead> root, CriteriaBuilder builder) {
+            final Path<Date> datePath = root.get("date");
+            return builder.greaterThanOrEqualTo(datePath, date);
+        }
+
+        @Override
+        boolean test(IndexedOffer offer) {
+            return !offer.getDate().before(date);
+        }
+    }
+
+    @EqualsAndHashCode(callSuper = false)
+    @ToString
+    private static final class DateTo extends OfferCriterion {
+
+        private final Date date;
+
+        private DateTo(Date date) {
+            super(7);
+            this.date = date;
+        }
+
+        @Override
+        Predicate toPredicate(Root<DbOfferRead> root, CriteriaBuilder builder) {
+            final Path<Date> datePath = root.get("date");
+            return builder.lessThanOrEqualTo(datePath, date);
+        }
+
+        @Override
+        boolean test(IndexedOffer offer) {
+            return !offer.getDate().after(date);
+        }
+    }
+
+    @EqualsAndHashCode(callSuper = false)
+    @ToString
+    private static final class PriceFrom extends OfferCriterion {
+
+        private final Double price;
+
+        private PriceFrom(Double price) {
+            super(8);
+            this.price = price;
+        }
+
+        @Override
+        Predicate toPredicate(Root<DbOfferRead> root, CriteriaBuilder builder) {
+            final Path<Double> pricePath = root.get("basePrice");
+            return builder.greaterThanOrEqualTo(pricePath, price);
+        }
+
+        @Override
+        boolean test(IndexedOffer offer) {
+            return offer.getBasePrice() != null && offer.getBasePrice() >= price;
+        }
+    }
+
+    @EqualsAndHashCode(callSuper = false)
+    @ToString
+    private static final class PriceTo extends OfferCriterion {
+
+        private final Double price;
+
+        private PriceTo(Double price) {
+            super(8);
+            this.price = price;
+        }
+
+        @Override
+        Predicate toPredicate(Root<DbOfferRead> root, CriteriaBuilder builder) {
+            final Path<Double> pricePath = root.get("basePrice");
+            return builder.lessThanOrEqualTo(pricePath, price);
+        }
+
+        @Override
+        boolean test(IndexedOffer offer) {
+            return offer.getBasePrice() != null && offer.getBasePrice() <= price;
+        }
+    }
+
+    @EqualsAndHashCode(callSuper = false)
+    @ToString
+    private static final class After extends OfferCriterion {
+
+        private final OfferCursor cursor;
+
+        private After(OfferCursor cursor) {
+            super(9);
+            this.cursor = cursor;
+        }
+
+        @Override
+        Predicate toPredicate(Root<DbOfferRead> root, CriteriaBuilder builder) {
+            return cursor.toPredicate(root, builder);
+        }
+
+        /**
+         * Cursor only selects a window of the listing, every offer meeting other criteria belongs to the listing.
+         */
+        @Override
+        boolean test(IndexedOffer offer) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.intive.shopme.offer;
+
+import com.intive.shopme.model.db.DbOfferRead;
+import com.intive.shopme.model.rest.OfferView;
+import com.intive.shopme.validation.InvalidRequestParameterException;
+import lombok.Data;
+import org.springframework.data.domain.Sort;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Opaque position in offers listing: sort key and id of the last offer seen by the client.
+ * <p>
+ * Next page is selected with seek predicate {@code (sortKey, id) < (value, id)} (or {@code >} for ascending order)
+ * instead of OFFSET, so its cost does not depend on how deep in the listing the client is.
+ */
+@Data
+class OfferCursor {
+
+    private static final List<String> SORT_PROPERTIES = List.of("date", "basePrice", "title");
+    private static final String SEPARATOR = "|";
+    private static final String INVALID_CURSOR = "Invalid cursor, it has to be taken from previous response without " +
+            "changing sort property and order.";
+
+    private final String sort;
+    private final Sort.Direction direction;
+    private final UUID id;
+    private final Object value;
+
+    /**
+     * @return offer property with the name matching given one regardless of case (as sort parameter is accepted),
+     * or the given name when there is none
+     */
+    static String sortProperty(String sort) {
+        return SORT_PROPERTIES.stream().filter(sort::equalsIgnoreCase).findFirst().orElse(sort);
+    }
+
+    static OfferCursor after(OfferView offer, String sortParameter, Sort.Direction direction) {
+        final var sort = sortProperty(sortParameter);
+        final Object value;
+        switch (sort) {
+            case "date":
+                value = offer.getDate();
+                break;
+            case "basePrice":
+                value = offer.getBasePrice();
+                break;
+            default:
+                value = offer.getTitle();
+        }
+        return new OfferCursor(sort, direction, offer.getId(), value);
+    }
+
+    static OfferCursor decode(String cursor, String sortParameter, Sort.Direction direction) {
+        final var sort = sortProperty(sortParameter);
+        try {
+            final var parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split("\\" + SEPARATOR, 4);
+            if (parts.length != 4 || !parts[0].equals(sort) || Sort.Direction.fromString(parts[1]) != direction) {
+                throw new InvalidRequestParameterException(INVALID_CURSOR);
+            }
+
+            final Object value;
+            switch (sort) {
+                case "date":
+                    value = new Date(Long.parseLong(parts[3]));
+                    break;
+                case "basePrice":
+                    value = Double.valueOf(parts[3]);
+                    break;
+                default:
+                    value = parts[3];
+            }
+            return new OfferCursor(sort, direction, UUID.fromString(parts[2]), value);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestParameterException(INVALID_CURSOR);
+        }
+    }
+
+    String encode() {
+        final var encodedValue = value instanceof Date ? String.valueOf(((Date) value).getTime()) : value.toString();
+        final var plain = String.join(SEPARATOR, sort, direction.name(), id.toString(), encodedValue);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(plain.getBytes(StandardCharsets.UTF_8));
+    }
+
+    Predicate toPredicate(Root<DbOfferRead> root, CriteriaBuilder builder) {
+        switch (sort) {
+            case "date":
+                return seek(root, builder, (Date) value);
+            case "basePrice":
+                return seek(root, builder, (Double) value);
+            default:
+                return seek(root, builder, (String) value);
+        }
+    }
+
+    private <T extends Comparable<? super T>> Predicate seek(Root<DbOfferRead> root, CriteriaBuilder builder, T value) {
+        final Path<T> keyPath = root.get(sort);
+        final Path<UUID> idPath = root.get("id");
+        if (direction.isDescending()) {
+            return builder.or(builder.lessThan(keyPath, value),
+                    builder.and(builder.equal(keyPath, value), builder.lessThan(idPath, id)));
+        }
+        return builder.or(builder.greaterThan(keyPath, value),
+                builder.and(builder.equal(keyPath, value), builder.greaterThan(idPath, id)));
+    }
+}
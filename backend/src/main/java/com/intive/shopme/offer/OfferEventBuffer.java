@@ -0,0 +1,64 @@
+package com.intive.shopme.offer;
+
+import com.intive.shopme.model.rest.OfferEvent;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed size ring buffer of the latest offer events, numbered with consecutive ids.
+ * <p>
+ * Writers only claim the next id and store the event in its slot, overwriting the oldest one, so they never wait for
+ * each other nor for readers. Readers detect events not stored yet (slot still holding an older event) and events
+ * already overwritten (slot holding a newer one) by comparing ids.
+ */
+class OfferEventBuffer {
+
+    private final AtomicReferenceArray<OfferEvent> events;
+    private final AtomicLong lastId = new AtomicLong();
+
+    OfferEventBuffer(int capacity) {
+        this.events = new AtomicReferenceArray<>(capacity);
+    }
+
+    OfferEvent publish(OfferEvent.Type type, UUID offerId, String title, Date date) {
+        final var result = new OfferEvent(lastId.incrementAndGet(), type, offerId, title, date);
+        events.set(slot(result.getId()), result);
+        return result;
+    }
+
+    long lastId() {
+        return lastId.get();
+    }
+
+    /**
+     * @return events following the given one, up to the first one not stored yet, or {@code null} when some of them
+     * have already been overwritten (or the id is not known at all), so the reader has to resynchronize
+     */
+    List<OfferEvent> after(long id, int limit) {
+        if (id > lastId.get()) {
+            return null;
+        }
+
+        final List<OfferEvent> result = new ArrayList<>();
+        for (long next = id + 1; result.size() < limit; next++) {
+            final var event = events.get(slot(next));
+            if (event == null || event.getId() < next) {
+                break;
+            }
+            if (event.getId() > next) {
+                return null;
+            }
+            result.add(event);
+        }
+        return result;
+    }
+
+    private int slot(long id) {
+        return (int) Math.floorMod(id, (long) events.length());
+    }
+}
@@ -0,0 +1,132 @@
+package com.intive.shopme.offer;
+
+import com.intive.shopme.model.rest.OfferEvent;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.security.SecureRandom;
+
+/**
+ * Server-Sent Events feed of offer changes.
+ * <p>
+ * Changes are only appended to {@link OfferEventBuffer}, {@link SseSender} threads then send every subscriber events
+ * following the last one it has received, so a subscriber not reading its stream does not delay the others (and is
+ * dropped after the send timeout). Open streams are asynchronous requests, so idle subscribers do not hold any thread.
+ * Subscriber which fell behind by more than the buffer size (or reconnected with unknown Last-Event-ID) gets
+ * {@value #RESYNC_EVENT} event instead and has to reload offers itself.
+ * <p>
+ * Events are numbered by every application instance on its own, so event ids are prefixed with a random epoch of the
+ * instance start. Client reconnecting to another instance (or to a restarted one) with Last-Event-ID of other epoch
+ * has to resynchronize, instead of continuing from an event with the same number but of other sequence.
+ */
+@Log4j2
+@Component
+class OfferEventStream implements OfferChangeListener {
+
+    static final String OFFER_EVENT = "offer";
+    static final String RESYNC_EVENT = "resync";
+
+    /**
+     * Maximum number of events sent to a single subscriber at once, so it is checked whether it is still read.
+     */
+    private static final int DISPATCH_BATCH_SIZE = 100;
+    private static final String EPOCH_SEPARATOR = "-";
+    private static final long UNKNOWN_EVENT_ID = Long.MAX_VALUE;
+
+    private final OfferEventBuffer buffer;
+    private final long timeout;
+    private final SseSender sender;
+    private final String epoch = Long.toHexString(new SecureRandom().nextLong() & Long.MAX_VALUE);
+
+    OfferEventStream(@Value("${offer.event-stream.buffer-size}") int bufferSize,
+                     @Value("${offer.event-stream.timeout}") long timeout,
+                     @Value("${offer.event-stream.sender-threads}") int senderThreads,
+                     @Value("${offer.event-stream.send-timeout}") long sendTimeout) {
+        this.buffer = new OfferEventBuffer(bufferSize);
+        this.timeout = timeout;
+        this.sender = new SseSender("offer-events-sender", senderThreads, sendTimeout);
+    }
+
+    /**
+     * @param lastEventId id of the last event received before reconnecting, {@code null} to receive only new events
+     */
+    SseEmitter subscribe(String lastEventId) {
+        final var subscriber = new Subscriber(lastEventId != null ? parseEventId(lastEventId) : buffer.lastId());
+        final var emitter = new SseEmitter(timeout);
+        sender.flush(sender.open(emitter, subscriber::send, () -> { }));
+        return emitter;
+    }
+
+    @Override
+    public void offerChanged(IndexedOffer previous, IndexedOffer current) {
+        if (current == null) {
+            buffer.publish(OfferEvent.Type.DELETED, previous.getId(), null, null);
+        } else {
+            buffer.publish(previous == null ? OfferEvent.Type.CREATED : OfferEvent.Type.UPDATED, current.getId(),
+                    current.getTitle(), current.getDate());
+        }
+        sender.flushAll();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sender.shutdown();
+    }
+
+    String eventId(long id) {
+        return epoch + EPOCH_SEPARATOR + id;
+    }
+
+    /**
+     * @return number of the event, or {@value #UNKNOWN_EVENT_ID} when it is of other epoch (or malformed, or negative)
+     */
+    long parseEventId(String eventId) {
+        final var prefix = epoch + EPOCH_SEPARATOR;
+        if (!eventId.startsWith(prefix)) {
+            return UNKNOWN_EVENT_ID;
+        }
+
+        try {
+            final var result = Long.parseLong(eventId.substring(prefix.length()));
+            return result >= 0 ? result : UNKNOWN_EVENT_ID;
+        } catch (NumberFormatException e) {
+            return UNKNOWN_EVENT_ID;
+        }
+    }
+
+    private final class Subscriber {
+
+        private long lastEventId;
+
+        private Subscriber(long lastEventId) {
+            this.lastEventId = lastEventId;
+        }
+
+        /**
+         * @return whether there are more events to be sent to the subscriber
+         */
+        private boolean send(SseEmitter emitter) throws IOException {
+            final var events = buffer.after(lastEventId, DISPATCH_BATCH_SIZE);
+            if (events == null) {
+                final var lastId = buffer.lastId();
+                emitter.send(SseEmitter.event().name(RESYNC_EVENT).id(eventId(lastId)).data(lastId));
+                lastEventId = lastId;
+                return false;
+            }
+
+            for (OfferEvent event : events) {
+                emitter.send(SseEmitter.event()
+                        .name(OFFER_EVENT)
+                        .id(eventId(event.getId()))
+                        .data(event, MediaType.APPLICATION_JSON));
+                lastEventId = event.getId();
+            }
+            return events.size() == DISPATCH_BATCH_SIZE;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.intive.shopme.offer;
+
+import com.intive.shopme.model.rest.OfferFacets;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bitmap index of offers for facet counts. Every offer gets a dense ordinal (ordinals of deleted offers are reused)
+ * and there is one bitmap of ordinals per category, voivodeship and price range, so number of offers matching
+ * the filter within every facet value is a single AND and cardinality of two bitmaps.
+ */
+@Log4j2
+@Component
+class OfferFacetIndex implements OfferChangeListener {
+
+    /**
+     * Upper (exclusive) bounds of price ranges, the last range has no upper bound.
+     */
+    static final int[] PRICE_RANGE_BOUNDS = {50, 100, 200, 500, 1000};
+
+    private static final BitSet EMPTY = new BitSet();
+
+    private final IndexedOffers indexedOffers;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<UUID, Integer> ordinals = new HashMap<>();
+    private final List<IndexedOffer> offers = new ArrayList<>();
+    private final BitSet live = new BitSet();
+    private final Map<String, BitSet> categories = new HashMap<>();
+    private final Map<String, BitSet> voivodeships = new HashMap<>();
+    private final BitSet[] priceRanges = new BitSet[PRICE_RANGE_BOUNDS.length + 1];
+
+    OfferFacetIndex(IndexedOffers indexedOffers) {
+        this.indexedOffers = indexedOffers;
+        for (int i = 0; i < priceRanges.length; i++) {
+            priceRanges[i] = new BitSet();
+        }
+    }
+
+    @PostConstruct
+    void load() {
+        indexedOffers.getAll().forEach(this::offerAdded);
+        log.info("Indexed facets of {} offers", ordinals.size());
+    }
+
+    @Override
+    public void offerChanged(IndexedOffer previous, IndexedOffer current) {
+        lock.writeLock().lock();
+        try {
+            if (previous != null) {
+                offerRemoved(previous);
+            }
+            if (current != null) {
+                offerAdded(current);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    OfferFacets count(OfferFilter filter) {
+        lock.readLock().lock();
+        try {
+            final var matching = filter.select(this);
+            final Map<String, Long> priceRangeCounts = new LinkedHashMap<>();
+            for (int i = 0; i < priceRanges.length; i++) {
+                putCount(priceRangeCounts, priceRangeName(i), priceRanges[i], matching);
+            }
+            return new OfferFacets((long) matching.cardinality(), count(categories, matching),
+                    count(voivodeships, matching), priceRangeCounts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return ids of all offers matching the filter
+     */
+    List<UUID> find(OfferFilter filter) {
+        lock.readLock().lock();
+        try {
+            final var matching = filter.select(this);
+            final List<UUID> result = new ArrayList<>(matching.cardinality());
+            matching.stream().forEach(ordinal -> result.add(offers.get(ordinal).getId()));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return ordinals of all offers, the caller is free to modify returned bitmap
+     */
+    BitSet all() {
+        return (BitSet) live.clone();
+    }
+
+    IndexedOffer get(int ordinal) {
+        return offers.get(ordinal);
+    }
+
+    BitSet category(String name) {
+        return categories.getOrDefault(name, EMPTY);
+    }
+
+    BitSet voivodeship(String name) {
+        return voivodeships.getOrDefault(name, EMPTY);
+    }
+
+    static String priceRangeName(int range) {
+        if (range == 0) {
+            return "0-" + PRICE_RANGE_BOUNDS[0];
+        }
+        if (range == PRICE_RANGE_BOUNDS.length) {
+            return PRICE_RANGE_BOUNDS[range - 1] + "+";
+        }
+        return PRICE_RANGE_BOUNDS[range - 1] + "-" + PRICE_RANGE_BOUNDS[range];
+    }
+
+    private static int priceRange(Double price) {
+        var result = 0;
+        while (result < PRICE_RANGE_BOUNDS.length && price != null && price >= PRICE_RANGE_BOUNDS[result]) {
+            result++;
+        }
+        return result;
+    }
+
+    private static Map<String, Long> count(Map<String, BitSet> bitmaps, BitSet matching) {
+        final Map<String, Long> result = new HashMap<>();
+        bitmaps.forEach((name, bitmap) -> putCount(result, name, bitmap, matching));
+        return result;
+    }
+
+    private static void putCount(Map<String, Long> counts, String name, BitSet bitmap, BitSet matching) {
+        final var intersection = (BitSet) bitmap.clone();
+        intersection.and(matching);
+        final var count = intersection.cardinality();
+        if (count > 0) {
+            counts.put(name, (long) count);
+        }
+    }
+
+    private void offerAdded(IndexedOffer offer) {
+        lock.writeLock().lock();
+        try {
+            final int ordinal = live.nextClearBit(0);
+            if (ordinal == offers.size()) {
+                offers.add(offer);
+            } else {
+                offers.set(ordinal, offer);
+            }
+            ordinals.put(offer.getId(), ordinal);
+            live.set(ordinal);
+            categories.computeIfAbsent(offer.getCategory(), name -> new BitSet()).set(ordinal);
+            voivodeships.computeIfAbsent(offer.getVoivodeship(), name -> new BitSet()).set(ordinal);
+            priceRanges[priceRange(offer.getBasePrice())].set(ordinal);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void offerRemoved(IndexedOffer offer) {
+        lock.writeLock().lock();
+        try {
+            final var ordinal = ordinals.remove(offer.getId());
+            if (ordinal == null) {
+                return;
+            }
+
+            final var indexed = offers.get(ordinal);
+            live.clear(ordinal);
+            categories.get(indexed.getCategory()).clear(ordinal);
+            voivodeships.get(indexed.getVoivodeship()).clear(ordinal);
+            priceRanges[priceRange(indexed.getBasePrice())].clear(ordinal);
+            offers.set(ordinal, null);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
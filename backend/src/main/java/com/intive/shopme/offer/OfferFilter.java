@@ -0,0 +1,182 @@
+package com.intive.shopme.offer;
+
+import com.intive.shopme.model.db.DbOfferRead;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Offers search filter compiled once per request from typed criteria: duplicated criteria are dropped and the rest is
+ * ordered by estimated selectivity. When any criterion cannot be satisfied, the whole filter matches nothing and
+ * no query has to be executed at all.
+ * <p>
+ * Criteria are kept as given (title keywords as keywords), so the filter can also be evaluated in memory. Only
+ * the SQL predicate uses ids of offers resolved from {@link OfferTitleIndex} and {@link OfferSearchTermIndex} instead
+ * of title keywords and search terms.
+ */
+final class OfferFilter implements Specification<DbOfferRead> {
+
+    private final List<OfferCriterion> criteria;
+    private final List<OfferCriterion> predicates;
+
+    private OfferFilter(List<OfferCriterion> criteria, List<OfferCriterion> predicates) {
+        this.criteria = criteria;
+        this.predicates = predicates;
+    }
+
+    static OfferFilter compile(Collection<OfferCriterion> criteria) {
+        final var normalized = normalize(criteria);
+        return new OfferFilter(normalized, normalized);
+    }
+
+    static OfferFilter compile(Collection<OfferCriterion> criteria, OfferTitleIndex titleIndex,
+                               OfferSearchTermIndex searchTermIndex) {
+        final var normalized = normalize(criteria);
+        return new OfferFilter(normalized, resolveIndexed(normalized, titleIndex, searchTermIndex));
+    }
+
+    private static List<OfferCriterion> normalize(Collection<OfferCriterion> criteria) {
+        if (criteria.stream().anyMatch(criterion -> criterion instanceof OfferCriterion.Nothing)) {
+            return List.of(OfferCriterion.nothing());
+        }
+
+        return criteria.stream()
+                .distinct()
+                .sorted(Comparator.comparingInt(OfferCriterion::getRank))
+                .collect(toList());
+    }
+
+    /**
+     * Replaces title keywords and search terms with ids of offers matching all of them, unless there are more than
+     * {@link OfferTitleIndex#MAX_ID_FILTER_SIZE} such offers.
+     */
+    private static List<OfferCriterion> resolveIndexed(List<OfferCriterion> criteria, OfferTitleIndex titleIndex,
+                                                       OfferSearchTermIndex searchTermIndex) {
+        final Map<OfferCriterion, Set<String>> titleTerms = new LinkedHashMap<>();
+        final List<String> searchTerms = new ArrayList<>();
+        for (OfferCriterion criterion : criteria) {
+            final var terms = criterion.titleTerms(titleIndex);
+            if (terms != null) {
+                titleTerms.put(criterion, terms);
+            }
+            if (criterion.searchTerm() != null) {
+                searchTerms.add(criterion.searchTerm());
+            }
+        }
+        if (titleTerms.isEmpty() && searchTerms.isEmpty()) {
+            return criteria;
+        }
+
+        final Set<UUID> matchingIds;
+        if (searchTerms.isEmpty()) {
+            matchingIds = titleIndex.findByTerms(titleTerms.values());
+        } else {
+            matchingIds = searchTermIndex.find(searchTerms);
+            if (!titleTerms.isEmpty() && !matchingIds.isEmpty()) {
+                matchingIds.retainAll(titleIndex.findByTerms(titleTerms.values()));
+            }
+        }
+        if (matchingIds.isEmpty()) {
+            return List.of(OfferCriterion.nothing());
+        }
+
+        final var idsFiltered = matchingIds.size() <= OfferTitleIndex.MAX_ID_FILTER_SIZE;
+        final List<OfferCriterion> result = new ArrayList<>();
+        if (idsFiltered) {
+            result.add(OfferCriterion.idIn(matchingIds));
+        }
+        for (OfferCriterion criterion : criteria) {
+            if (titleTerms.containsKey(criterion)) {
+                if (!idsFiltered) {
+                    result.add(criterion.titleFallback(titleTerms.get(criterion)));
+                }
+            } else if (criterion.searchTerm() == null || !idsFiltered) {
+                result.add(criterion);
+            }
+        }
+        return result;
+    }
+
+    boolean matchesNothing() {
+        return predicates.size() == 1 && predicates.get(0) instanceof OfferCriterion.Nothing;
+    }
+
+    /**
+     * @return value identifying the filter regardless of the order in which criteria were given
+     */
+    Object key() {
+        return Set.copyOf(criteria);
+    }
+
+    List<String> titleKeywords() {
+        return titleKeywords(criteria);
+    }
+
+    private static List<String> titleKeywords(List<OfferCriterion> criteria) {
+        return criteria.stream()
+                .map(OfferCriterion::titleKeyword)
+                .filter(Objects::nonNull)
+                .collect(toList());
+    }
+
+    /**
+     * @return group of the most selective criterion limiting offers to a group, {@code null} when there is none
+     * @see OfferCriterion#group()
+     */
+    String group() {
+        return criteria.stream()
+                .map(OfferCriterion::group)
+                .filter(Objects::nonNull)
+                .findFirst()
+                .orElse(null);
+    }
+
+    boolean test(IndexedOffer offer) {
+        return criteria.stream().allMatch(criterion -> criterion.test(offer));
+    }
+
+    /**
+     * @return ordinals of offers from the index meeting all criteria
+     */
+    BitSet select(OfferFacetIndex index) {
+        final var result = index.all();
+        for (OfferCriterion criterion : criteria) {
+            if (result.isEmpty()) {
+                break;
+            }
+            criterion.narrow(result, index);
+        }
+        return result;
+    }
+
+    @Override
+    public Predicate toPredicate(Root<DbOfferRead> root, CriteriaQuery<?> query, CriteriaBuilder builder) {
+        if (predicates.isEmpty()) {
+            return null;
+        }
+
+        return builder.and(predicates.stream()
+                .map(criterion -> criterion.toPredicate(root, builder))
+                .toArray(Predicate[]::new));
+    }
+
+    @Override
+    public String toString() {
+        return criteria.toString();
+    }
+}
@@ -0,0 +1,189 @@
+package com.intive.shopme.offer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.intive.shopme.category.CategoryValidator;
+import com.intive.shopme.model.db.DbOffer;
+import com.intive.shopme.model.rest.OfferImportResult;
+import com.intive.shopme.model.rest.OfferWrite;
+import com.intive.shopme.voivodeship.VoivodeshipValidator;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.ObjectError;
+import org.springframework.validation.Validator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static com.intive.shopme.config.AppConfig.IMPORT_BATCH_SIZE;
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Imports offers read one by one from newline delimited JSON (or JSON array), so the whole request is never kept in
+ * memory. Every {@value com.intive.shopme.config.AppConfig#IMPORT_BATCH_SIZE} offers are validated in parallel and
+ * valid ones are inserted in a separate transaction with batched statements.
+ * <p>
+ * Categories and voivodeships are checked in database once per distinct name within an import, in the importing
+ * thread before the parallel validation, so only CPU bound work runs in the common fork-join pool.
+ * <p>
+ * Offer which can not be mapped (e.g. text given as price) is rejected and the import goes on, malformed JSON stops
+ * the import (offers read before it are imported). Offers of a batch which insert fails are all rejected with the
+ * database error, following batches are still imported.
+ */
+@Log4j2
+@Component
+class OfferImporter {
+
+    private final OfferService service;
+    private final ObjectReader reader;
+    private final javax.validation.Validator validator;
+    private final Validator categoryValidator;
+    private final Validator voivodeshipValidator;
+
+    OfferImporter(OfferService service, ObjectMapper objectMapper, javax.validation.Validator validator,
+                  CategoryValidator categoryValidator, VoivodeshipValidator voivodeshipValidator) {
+        this.service = service;
+        this.reader = objectMapper.readerFor(OfferWrite.class);
+        this.validator = validator;
+        this.categoryValidator = categoryValidator;
+        this.voivodeshipValidator = voivodeshipValidator;
+    }
+
+    /**
+     * @param converter creates new offer (with id, date and owner) from a valid imported one
+     * @return result of every imported offer, in the order of offers in input
+     */
+    List<OfferImportResult> importOffers(InputStream input, Function<OfferWrite, DbOffer> converter)
+            throws IOException {
+        final var batch = new Batch(converter);
+        try (MappingIterator<OfferWrite> offers = reader.readValues(input)) {
+            while (offers.hasNextValue()) {
+                try {
+                    batch.add(offers.nextValue());
+                } catch (JsonMappingException e) {
+                    batch.reject("Invalid offer: " + e.getOriginalMessage());
+                }
+            }
+        } catch (JsonProcessingException e) {
+            batch.flush();
+            batch.results.add(OfferImportResult.rejected(batch.results.size(),
+                    "Malformed offer, import stopped: " + e.getOriginalMessage()));
+            return batch.results;
+        }
+        batch.flush();
+        return batch.results;
+    }
+
+    private final class Batch {
+
+        private final Function<OfferWrite, DbOffer> converter;
+        // null in place of offers which could not be read, with their errors in readErrors
+        private final List<OfferWrite> offers = new ArrayList<>(IMPORT_BATCH_SIZE);
+        private final Map<Integer, String> readErrors = new HashMap<>();
+        private final List<OfferImportResult> results = new ArrayList<>();
+        private final Map<String, String> categoryErrors = new HashMap<>();
+        private final Map<String, String> voivodeshipErrors = new HashMap<>();
+
+        private Batch(Function<OfferWrite, DbOffer> converter) {
+            this.converter = converter;
+        }
+
+        private void add(OfferWrite offer) {
+            offers.add(offer);
+            if (offers.size() == IMPORT_BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        private void reject(String error) {
+            readErrors.put(offers.size(), error);
+            add(null);
+        }
+
+        private void flush() {
+            for (OfferWrite offer : offers) {
+                if (offer != null) {
+                    check(categoryValidator, categoryErrors, offer, offer.getCategory());
+                    check(voivodeshipValidator, voivodeshipErrors, offer, offer.getVoivodeship());
+                }
+            }
+            final var errors = offers.parallelStream()
+                    .map(offer -> offer != null ? validate(offer) : null)
+                    .collect(toList());
+            readErrors.forEach(errors::set);
+            final List<DbOffer> created = new ArrayList<>();
+            final List<OfferImportResult> batchResults = new ArrayList<>(offers.size());
+            final var firstIndex = results.size();
+            IntStream.range(0, offers.size()).forEach(i -> {
+                if (errors.get(i).isEmpty()) {
+                    final var offer = converter.apply(offers.get(i));
+                    created.add(offer);
+                    batchResults.add(OfferImportResult.imported(firstIndex + i, offer.getId()));
+                } else {
+                    batchResults.add(OfferImportResult.rejected(firstIndex + i, errors.get(i)));
+                }
+            });
+
+            if (!created.isEmpty()) {
+                try {
+                    service.createAll(created);
+                } catch (DataAccessException e) {
+                    log.warn("Batch of {} imported offers not saved", created.size(), e);
+                    final var error = "Offer not saved with its batch: " + e.getMostSpecificCause().getMessage();
+                    batchResults.replaceAll(result -> result.getErrors() == null ?
+                            OfferImportResult.rejected(result.getIndex(), error) : result);
+                }
+            }
+            results.addAll(batchResults);
+            offers.clear();
+            readErrors.clear();
+        }
+
+        private String validate(OfferWrite offer) {
+            final var constraints = validator.validate(offer).stream()
+                    .map(violation -> StringUtils.isEmpty(violation.getPropertyPath().toString()) ?
+                            violation.getMessage() : violation.getPropertyPath() + ": " + violation.getMessage());
+            final var names = Stream.of(
+                    nameErrors(categoryErrors, offer.getCategory()),
+                    nameErrors(voivodeshipErrors, offer.getVoivodeship()));
+            return Stream.concat(constraints, names)
+                    .filter(StringUtils::isNotEmpty)
+                    .collect(joining(","));
+        }
+
+        /**
+         * Validates the name in database, unless it has already been checked within the import.
+         */
+        private void check(Validator nameValidator, Map<String, String> checked, OfferWrite offer, String name) {
+            if (name == null) {
+                return;
+            }
+            checked.computeIfAbsent(name, key -> {
+                final var errors = new BeanPropertyBindingResult(offer, "offer");
+                nameValidator.validate(key, errors);
+                return errors.getAllErrors().stream().map(ObjectError::getDefaultMessage).collect(joining(","));
+            });
+        }
+
+        /**
+         * @return errors of a name already {@link #check checked}, read only, so it can be called in parallel
+         */
+        private String nameErrors(Map<String, String> checked, String name) {
+            return name == null ? "" : checked.get(name);
+        }
+    }
+}
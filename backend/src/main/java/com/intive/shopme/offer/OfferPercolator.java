@@ -0,0 +1,157 @@
+package com.intive.shopme.offer;
+
+import com.intive.shopme.model.db.DbSavedSearch;
+import com.intive.shopme.model.rest.SavedSearchMatch;
+import com.intive.shopme.validation.InvalidRequestParameterException;
+import lombok.Value;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Reverse search: instead of running every saved search against offers, every new offer is run against saved
+ * searches, and owners of the matching ones are notified.
+ * <p>
+ * Saved searches are kept in memory compiled to {@link OfferFilter}s and indexed by their {@link OfferFilter#group()}
+ * (user, category or voivodeship), so a new offer is tested only against searches of its own groups and the few
+ * without any group, not against all of them.
+ * <p>
+ * Every application instance receives all new offers (including these created by other instances, see
+ * {@link OfferService#pollChanges()}), so it percolates them only against saved searches of users having
+ * notifications stream open in it. These are loaded when a user subscribes, and refreshed from database every
+ * refresh interval, so searches saved or deleted through other instances are taken into account too.
+ */
+@Log4j2
+@Component
+class OfferPercolator implements OfferChangeListener {
+
+    private static final String NO_GROUP = "";
+
+    private final SavedSearchRepository repository;
+    private final SavedSearchNotifier notifier;
+    private final Map<String, Map<UUID, SavedQuery>> queriesByGroup = new ConcurrentHashMap<>();
+    private final Map<UUID, String> groups = new ConcurrentHashMap<>();
+
+    OfferPercolator(SavedSearchRepository repository, SavedSearchNotifier notifier) {
+        this.repository = repository;
+        this.notifier = notifier;
+    }
+
+    /**
+     * Registers saved searches of subscribed users, and unregisters these which have been deleted or which users
+     * are no longer subscribed.
+     */
+    @Scheduled(fixedDelayString = "${offer.saved-search.refresh-interval}")
+    synchronized void refresh() {
+        final var userIds = notifier.subscribedUsers();
+        final var searches = userIds.isEmpty() ? List.<DbSavedSearch>of() : repository.findAllByUserIdIn(userIds);
+
+        final var ids = searches.stream().map(DbSavedSearch::getId).collect(Collectors.toSet());
+        Set.copyOf(groups.keySet()).stream().filter(id -> !ids.contains(id)).forEach(this::unregister);
+        searches.stream().filter(search -> !groups.containsKey(search.getId())).forEach(this::registerValid);
+    }
+
+    void registerAll(List<DbSavedSearch> searches) {
+        searches.forEach(this::registerValid);
+    }
+
+    private void registerValid(DbSavedSearch search) {
+        try {
+            register(search);
+        } catch (InvalidRequestParameterException e) {
+            log.warn("Saved search {} is no longer valid and is skipped: {}", search.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * @param query URL query string of offers search, paging, sort and cursor parameters are ignored
+     */
+    static OfferFilter compile(String query) {
+        final var params = OfferSearchParams.parse(query);
+        params.setCursor(null);
+        return OfferFilter.compile(params.criteria());
+    }
+
+    void register(DbSavedSearch search) {
+        register(search.getId(), search.getUserId(), compile(search.getQuery()));
+    }
+
+    synchronized void register(UUID id, UUID userId, OfferFilter filter) {
+        unregister(id);
+        if (filter.matchesNothing()) {
+            return;
+        }
+
+        final var group = filter.group() != null ? filter.group() : NO_GROUP;
+        queriesByGroup.computeIfAbsent(group, key -> new ConcurrentHashMap<>())
+                .put(id, new SavedQuery(id, userId, filter));
+        groups.put(id, group);
+    }
+
+    synchronized void unregister(UUID id) {
+        final var group = groups.remove(id);
+        if (group == null) {
+            return;
+        }
+
+        final var queries = queriesByGroup.get(group);
+        queries.remove(id);
+        if (queries.isEmpty()) {
+            queriesByGroup.remove(group);
+        }
+    }
+
+    /**
+     * Only new offers are percolated, updates of existing ones do not notify anybody again.
+     */
+    @Override
+    public void offerChanged(IndexedOffer previous, IndexedOffer current) {
+        if (previous != null || current == null) {
+            return;
+        }
+
+        for (SavedQuery query : match(current)) {
+            notifier.send(query.getUserId(), new SavedSearchMatch(query.getId(), current.getId(),
+                    current.getTitle(), current.getDate()));
+        }
+    }
+
+    /**
+     * @return saved searches of other users than the offer's owner, which the offer matches
+     */
+    List<SavedQuery> match(IndexedOffer offer) {
+        final List<SavedQuery> result = new ArrayList<>();
+        for (String group : offer.groups()) {
+            match(offer, queriesByGroup.get(group), result);
+        }
+        match(offer, queriesByGroup.get(NO_GROUP), result);
+        return result;
+    }
+
+    private static void match(IndexedOffer offer, Map<UUID, SavedQuery> queries, List<SavedQuery> result) {
+        if (queries == null) {
+            return;
+        }
+
+        for (SavedQuery query : queries.values()) {
+            if (!query.getUserId().equals(offer.getUserId()) && query.getFilter().test(offer)) {
+                result.add(query);
+            }
+        }
+    }
+
+    @Value
+    static class SavedQuery {
+        UUID id;
+        UUID userId;
+        OfferFilter filter;
+    }
+}
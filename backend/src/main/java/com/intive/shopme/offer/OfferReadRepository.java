@@ -0,0 +1,91 @@
+package com.intive.shopme.offer;
+
+import com.intive.shopme.model.db.DbOfferRead;
+import com.intive.shopme.model.db.DbUser;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+interface OfferReadRepository extends JpaRepository<DbOfferRead, UUID>, OfferReadRepositoryCustom {
+
+    long count(Specification<DbOfferRead> filter);
+
+    String SELECT_FIELDS = "select o.id as id, o.date as date, o.title as title, o.basePrice as basePrice, " +
+            "o.category as category, o.voivodeship as voivodeship, o.city as city, o.userId as userId, " +
+            "o.baseDescription as baseDescription, o.extendedDescription as extendedDescription, " +
+            "o.extraDescription as extraDescription, o.searchTerms as searchTerms from DbOfferRead o";
+
+    @Query(SELECT_FIELDS)
+    List<OfferFields> findAllFields();
+
+    @Query(SELECT_FIELDS + " where o.id in :ids")
+    List<OfferFields> findAllFieldsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query(SELECT_FIELDS + " where o.userId = :userId")
+    List<OfferFields> findAllFieldsByUserId(@Param("userId") UUID userId);
+
+    /**
+     * Owner's contact details are the same in all offers of the owner.
+     */
+    Optional<OwnerContact> findFirstByUserId(UUID userId);
+
+    @Modifying
+    @Query("update DbOfferRead o set o.name = :#{#user.name}, o.surname = :#{#user.surname}, " +
+            "o.email = :#{#user.email}, o.phoneNumber = :#{#user.phoneNumber}, " +
+            "o.additionalInfo = :#{#user.additionalInfo} where o.userId = :#{#user.id}")
+    void updateOwner(@Param("user") DbUser user);
+
+    @Modifying
+    @Query("delete from DbOfferRead o where o.userId = :userId")
+    void deleteAllByUserId(@Param("userId") UUID userId);
+
+    interface OwnerContact {
+
+        String getName();
+
+        String getSurname();
+
+        String getEmail();
+
+        String getPhoneNumber();
+
+        String getAdditionalInfo();
+    }
+
+    interface OfferFields {
+
+        UUID getId();
+
+        Date getDate();
+
+        String getTitle();
+
+        Double getBasePrice();
+
+        String getCategory();
+
+        String getVoivodeship();
+
+        String getCity();
+
+        UUID getUserId();
+
+        String getBaseDescription();
+
+        String getExtendedDescription();
+
+        String getExtraDescription();
+
+        String getSearchTerms();
+    }
+}
@@ -0,0 +1,24 @@
+package com.intive.shopme.offer;
+
+import com.intive.shopme.model.db.DbOfferRead;
+import com.intive.shopme.model.rest.OfferView;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+interface OfferReadRepositoryCustom {
+
+    /**
+     * Selects offers presented in listing (including owner's public contact details) from single table within single
+     * statement, without issuing additional count query.
+     */
+    List<OfferView> findViews(Specification<DbOfferRead> filter, Sort sort, long offset, int limit);
+
+    /**
+     * Passes all offers matching the filter to the consumer while reading them from forward only cursor, fetching
+     * {@code fetchSize} rows at once, so memory usage does not depend on number of matching offers.
+     */
+    void streamViews(Specification<DbOfferRead> filter, Sort sort, int fetchSize, Consumer<OfferView> consumer);
+}
@@ -0,0 +1,101 @@
+package com.intive.shopme.offer;
+
+import com.intive.shopme.model.db.DbOfferRead;
+import com.intive.shopme.model.rest.OfferView;
+import org.apache.commons.lang3.StringUtils;
+import org.hibernate.annotations.QueryHints;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+
+class OfferReadRepositoryCustomImpl implements OfferReadRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<OfferView> findViews(Specification<DbOfferRead> filter, Sort sort, long offset, int limit) {
+        return createViewQuery(filter, sort)
+                .setFirstResult(Math.toIntExact(offset))
+                .setMaxResults(limit)
+                .getResultStream()
+                .map(OfferReadRepositoryCustomImpl::convertToView)
+                .collect(toList());
+    }
+
+    @Override
+    public void streamViews(Specification<DbOfferRead> filter, Sort sort, int fetchSize,
+                            Consumer<OfferView> consumer) {
+        final var query = createViewQuery(filter, sort)
+                .setHint(QueryHints.FETCH_SIZE, fetchSize);
+        try (Stream<DbOfferRead> rows = query.getResultStream()) {
+            var count = 0;
+            for (final var iterator = rows.iterator(); iterator.hasNext(); ) {
+                consumer.accept(convertToView(iterator.next()));
+                if (++count % fetchSize == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
+    private TypedQuery<DbOfferRead> createViewQuery(Specification<DbOfferRead> filter, Sort sort) {
+        final var builder = entityManager.getCriteriaBuilder();
+        final var query = builder.createQuery(DbOfferRead.class);
+        final var root = query.from(DbOfferRead.class);
+
+        query.select(root);
+        if (filter != null) {
+            final var predicate = filter.toPredicate(root, query, builder);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, builder));
+
+        return entityManager.createQuery(query)
+                .setHint(QueryHints.READ_ONLY, true);
+    }
+
+    static OfferView convertToView(DbOfferRead offer) {
+        final var result = new OfferView();
+
+        result.setId(offer.getId());
+        result.setDate(offer.getDate());
+        result.setTitle(offer.getTitle());
+        result.setCategory(offer.getCategory());
+        result.setBasePrice(offer.getBasePrice());
+        result.setBaseDescription(offer.getBaseDescription());
+
+        if (StringUtils.isNotEmpty(offer.getExtendedDescription()) && offer.getExtendedPrice() != null) {
+            result.setExtendedPrice(offer.getExtendedPrice());
+            result.setExtendedDescription(offer.getExtendedDescription());
+        }
+
+        if (StringUtils.isNotEmpty(offer.getExtraDescription()) && offer.getExtraPrice() != null) {
+            result.setExtraPrice(offer.getExtraPrice());
+            result.setExtraDescription(offer.getExtraDescription());
+        }
+
+        result.setUser(offer.getUserId());
+        result.setName(offer.getName());
+        result.setSurname(offer.getSurname());
+        result.setEmail(offer.getEmail());
+        result.setPhoneNumber(offer.getPhoneNumber());
+        result.setAdditionalInfo(offer.getAdditionalInfo());
+
+        result.setVoivodeship(offer.getVoivodeship());
+        result.setCity(offer.getCity());
+
+        return result;
+    }
+}
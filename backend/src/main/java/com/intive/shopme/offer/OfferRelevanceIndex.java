@@ -0,0 +1,222 @@
+package com.intive.shopme.offer;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Term statistics of offer titles and descriptions, used to order search results by BM25 relevance of title keywords.
+ * <p>
+ * Keyword matches every term containing it (as title search does), each matching term contributes with its own
+ * inverse document frequency. Title matches weigh more than description matches.
+ * <p>
+ * Terms have posting lists (term -> ids of offers having it), so only offers having terms matching keywords are
+ * scored, and terms matching a keyword are found in {@link SubstringIndex}. Searches read the index concurrently,
+ * only changes of offers take the write lock.
+ */
+@Log4j2
+@Component
+class OfferRelevanceIndex implements OfferChangeListener {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double TITLE_WEIGHT = 2.0;
+    private static final double DESCRIPTION_WEIGHT = 1.0;
+
+    private static final Comparator<Scored> BY_SCORE = Comparator.<Scored>comparingDouble(scored -> scored.score)
+            .thenComparingLong(scored -> scored.date);
+
+    private final IndexedOffers indexedOffers;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<UUID, Document> documents = new HashMap<>();
+    private final Map<String, Set<UUID>> postings = new HashMap<>();
+    private final SubstringIndex substrings = new SubstringIndex();
+    private long titlesLength;
+    private long descriptionsLength;
+
+    OfferRelevanceIndex(IndexedOffers indexedOffers) {
+        this.indexedOffers = indexedOffers;
+    }
+
+    @PostConstruct
+    void load() {
+        indexedOffers.getAll().forEach(offer -> offerChanged(null, offer));
+        log.info("Indexed term statistics of {} offers ({} distinct terms)", documents.size(), postings.size());
+    }
+
+    @Override
+    public void offerChanged(IndexedOffer previous, IndexedOffer current) {
+        lock.writeLock().lock();
+        try {
+            if (previous != null) {
+                remove(previous.getId());
+            }
+            if (current != null) {
+                add(current);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param candidates ids of offers matching search filter
+     * @param keywords   lower case keywords to score offers by
+     * @param limit      number of the most relevant offers to return
+     * @return ids of the most relevant offers, the most relevant first (newer first when equally relevant)
+     */
+    List<UUID> top(Collection<UUID> candidates, Collection<String> keywords, int limit) {
+        lock.readLock().lock();
+        try {
+            final var scores = score(candidates instanceof Set ? (Set<UUID>) candidates : new HashSet<>(candidates),
+                    keywords);
+            final var top = new PriorityQueue<>(limit + 1, BY_SCORE);
+            for (UUID id : candidates) {
+                final var document = documents.get(id);
+                if (document == null) {
+                    continue;
+                }
+
+                top.add(new Scored(id, scores.getOrDefault(id, 0.0), document.date));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+
+            final List<UUID> result = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                result.add(top.poll().id);
+            }
+            Collections.reverse(result);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return scores of candidates having any term matching keywords
+     */
+    private Map<UUID, Double> score(Set<UUID> candidates, Collection<String> keywords) {
+        final Map<UUID, Double> result = new HashMap<>();
+        final var averageTitleLength = average(titlesLength);
+        final var averageDescriptionLength = average(descriptionsLength);
+        for (String keyword : keywords) {
+            for (String term : substrings.termsContaining(keyword)) {
+                final var ids = postings.get(term);
+                final var inverseDocumentFrequency = inverseDocumentFrequency(ids.size());
+                for (UUID id : ids) {
+                    if (!candidates.contains(id)) {
+                        continue;
+                    }
+
+                    final var document = documents.get(id);
+                    final var score = TITLE_WEIGHT * score(document.title.getOrDefault(term, 0), document.titleLength,
+                            averageTitleLength) + DESCRIPTION_WEIGHT * score(document.description.getOrDefault(term, 0),
+                            document.descriptionLength, averageDescriptionLength);
+                    result.merge(id, inverseDocumentFrequency * score, Double::sum);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static double score(double frequency, int length, double averageLength) {
+        return frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * length / averageLength));
+    }
+
+    private double inverseDocumentFrequency(double frequency) {
+        return Math.log(1 + (documents.size() - frequency + 0.5) / (frequency + 0.5));
+    }
+
+    private double average(long totalLength) {
+        return documents.isEmpty() ? 1 : Math.max(1, (double) totalLength / documents.size());
+    }
+
+    private void add(IndexedOffer offer) {
+        final var document = new Document(offer);
+        documents.put(offer.getId(), document);
+        titlesLength += document.titleLength;
+        descriptionsLength += document.descriptionLength;
+        distinctTerms(document).forEach(term -> postings.computeIfAbsent(term, key -> {
+            substrings.add(key);
+            return new HashSet<>();
+        }).add(offer.getId()));
+    }
+
+    private void remove(UUID id) {
+        final var document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+
+        titlesLength -= document.titleLength;
+        descriptionsLength -= document.descriptionLength;
+        for (String term : distinctTerms(document)) {
+            final var ids = postings.get(term);
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                postings.remove(term);
+                substrings.remove(term);
+            }
+        }
+    }
+
+    private static Collection<String> distinctTerms(Document document) {
+        final Set<String> result = new HashSet<>(document.title.keySet());
+        result.addAll(document.description.keySet());
+        return result;
+    }
+
+    private static Map<String, Integer> frequencies(List<String> terms) {
+        final Map<String, Integer> result = new HashMap<>();
+        terms.forEach(term -> result.merge(term, 1, Integer::sum));
+        return result;
+    }
+
+    private static final class Document {
+
+        private final long date;
+        private final Map<String, Integer> title;
+        private final int titleLength;
+        private final Map<String, Integer> description;
+        private final int descriptionLength;
+
+        private Document(IndexedOffer offer) {
+            final var titleTerms = OfferAnalyzer.tokenize(offer.getTitle());
+            final var descriptionTerms = OfferAnalyzer.tokenize(offer.getDescription());
+            this.date = offer.getDate() != null ? offer.getDate().getTime() : 0;
+            this.title = frequencies(titleTerms);
+            this.titleLength = titleTerms.size();
+            this.description = frequencies(descriptionTerms);
+            this.descriptionLength = descriptionTerms.size();
+        }
+    }
+
+    private static final class Scored {
+
+        private final UUID id;
+        private final double score;
+        private final long date;
+
+        private Scored(UUID id, double score, long date) {
+            this.id = id;
+            this.score = score;
+            this.date = date;
+        }
+    }
+}
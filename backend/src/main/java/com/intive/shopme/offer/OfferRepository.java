@@ -2,19 +2,20 @@ package com.intive.shopme.offer;
 
 import com.intive.shopme.model.db.DbOffer;
 import com.intive.shopme.model.db.DbUser;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 interface OfferRepository extends JpaRepository<DbOffer, UUID> {
 
-    Page<DbOffer> findAll(Specification<DbOffer> filter, Pageable pageable);
+    @Override
+    @EntityGraph(attributePaths = {"category", "voivodeship", "user"})
+    Optional<DbOffer> findById(UUID id);
 
     List<DbOffer> findAllByUser(DbUser user);
 }
@@ -0,0 +1,85 @@
+package com.intive.shopme.offer;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.intive.shopme.model.rest.OfferView;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache of offers search result pages, keyed by compiled filter (criteria regardless of their order) and requested
+ * page. Cache size is limited by the total number of offers in cached pages.
+ * <p>
+ * On offer change only pages of filters matching the previous or the current version of the offer are invalidated,
+ * so popular listings unrelated to the change stay cached. Hit, miss and eviction statistics are published as
+ * {@value #METRIC_NAME} cache metrics.
+ */
+@Component
+class OfferResultCache implements OfferChangeListener {
+
+    static final String METRIC_NAME = "offers.results";
+
+    private final Cache<Key, Page<OfferView>> results;
+    private final AtomicLong changes = new AtomicLong();
+
+    OfferResultCache(@Value("${offer.result-cache.expiration-time}") long expirationTime,
+                     @Value("${offer.result-cache.maximum-weight}") long maximumWeight,
+                     MeterRegistry meterRegistry) {
+        this.results = Caffeine.newBuilder()
+                .expireAfterWrite(expirationTime, TimeUnit.MILLISECONDS)
+                .maximumWeight(maximumWeight)
+                .weigher((Key key, Page<OfferView> page) -> page.getNumberOfElements() + 1)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, results, METRIC_NAME);
+    }
+
+    Page<OfferView> get(OfferFilter filter, Pageable pageable, Supplier<Page<OfferView>> search) {
+        final var key = new Key(filter.key(), pageable, filter);
+        var result = results.getIfPresent(key);
+        if (result == null) {
+            // result loaded while offers were changing may be already stale, so it is not cached
+            final var changesBeforeSearch = changes.get();
+            result = search.get();
+            if (changes.get() == changesBeforeSearch) {
+                results.put(key, result);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void offerChanged(IndexedOffer previous, IndexedOffer current) {
+        changes.incrementAndGet();
+        results.asMap().keySet().removeIf(key -> matches(key.filter, previous) || matches(key.filter, current));
+    }
+
+    private static boolean matches(OfferFilter filter, IndexedOffer offer) {
+        return offer != null && filter.test(offer);
+    }
+
+    @EqualsAndHashCode(of = {"filterKey", "pageable"})
+    @ToString(of = {"filterKey", "pageable"})
+    private static final class Key {
+
+        private final Object filterKey;
+        private final Pageable pageable;
+        private final OfferFilter filter;
+
+        private Key(Object filterKey, Pageable pageable, OfferFilter filter) {
+            this.filterKey = filterKey;
+            this.pageable = pageable;
+            this.filter = filter;
+        }
+    }
+}
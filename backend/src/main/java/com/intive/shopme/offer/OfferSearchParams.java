@@ -1,31 +1,42 @@
 package com.intive.shopme.offer;
 
-import com.intive.shopme.model.db.DbCategory;
-import com.intive.shopme.model.db.DbVoivodeship;
+import com.intive.shopme.model.rest.OfferView;
+import com.intive.shopme.validation.InvalidRequestParameterException;
 import io.swagger.annotations.ApiModelProperty;
 import io.swagger.annotations.ApiParam;
 import lombok.Data;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.beans.MutablePropertyValues;
 import org.springframework.data.domain.Sort;
+import org.springframework.validation.DataBinder;
+import org.springframework.validation.FieldError;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.Pattern;
 import javax.validation.constraints.PositiveOrZero;
 import javax.validation.constraints.Size;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
-import static com.intive.shopme.config.AppConfig.ACCEPTABLE_TITLE_SEARCH_CHARS;
 import static com.intive.shopme.config.AppConfig.CITY_MAX_LENGTH;
 import static com.intive.shopme.config.AppConfig.DEFAULT_PAGE_SIZE;
 import static com.intive.shopme.config.AppConfig.DEFAULT_SORT_DIRECTION;
 import static com.intive.shopme.config.AppConfig.DEFAULT_SORT_FIELD;
 import static com.intive.shopme.config.AppConfig.FIRST_PAGE;
+import static com.intive.shopme.config.AppConfig.NEXT_CURSOR_HEADER;
+import static com.intive.shopme.config.AppConfig.OFFER_DESCRIPTION_MAX_LENGTH;
 import static com.intive.shopme.config.AppConfig.OFFER_TITLE_MAX_LENGTH;
 import static com.intive.shopme.config.AppConfig.PAGE_SIZE_MAX;
+import static com.intive.shopme.config.AppConfig.RELEVANCE_SORT_FIELD;
 
 @Data
 class OfferSearchParams {
@@ -59,13 +70,14 @@ class OfferSearchParams {
                     "transport, tutoring, workshopServices")
     private String category;
 
-    @ApiParam(value = "the property to sort by (optional, acceptable values: date | basePrice | title, default " +
-            DEFAULT_SORT_FIELD + ")",
-            allowableValues = "date, basePrice, title",
+    @ApiParam(value = "the property to sort by (optional, acceptable values: date | basePrice | title | relevance, " +
+            "default " + DEFAULT_SORT_FIELD + ", relevance orders the most relevant to title keywords first " +
+            "regardless of sorting order)",
+            allowableValues = "date, basePrice, title, relevance",
             defaultValue = DEFAULT_SORT_FIELD)
     @ApiModelProperty(position = 5)
-    @Pattern(regexp = "date|basePrice|title", flags = Pattern.Flag.CASE_INSENSITIVE,
-            message = "Acceptable sort properties are: date, basePrice and title")
+    @Pattern(regexp = "date|basePrice|title|" + RELEVANCE_SORT_FIELD, flags = Pattern.Flag.CASE_INSENSITIVE,
+            message = "Acceptable sort properties are: date, basePrice, title and relevance")
     private String sort = DEFAULT_SORT_FIELD;
 
     @ApiParam(value = "sorting order (optional, acceptable values: ASC | DESC, default " + DEFAULT_SORT_DIRECTION + ")",
@@ -78,11 +90,11 @@ class OfferSearchParams {
 
     @ApiModelProperty(value = "minimum price (optional)", position = 7, allowableValues = "range[0, infinity]")
     @PositiveOrZero(message = "Offer's minimum price cannot be negative")
-    private float priceMin;
+    private double priceMin;
 
     @ApiModelProperty(value = "maximum price (optional)", position = 8, allowableValues = "range[0, infinity]")
     @PositiveOrZero(message = "Offer's maximum price cannot be negative")
-    private float priceMax;
+    private double priceMax;
 
     @ApiModelProperty(value = "offer not older than (optional, EPOCH time in milliseconds)", position = 9)
     private long dateMin;
@@ -111,59 +123,145 @@ class OfferSearchParams {
     @ApiModelProperty(position = 13, example = "WestPomeranian")
     private String voivodeship;
 
+    @ApiParam(value = "position in listing returned in " + NEXT_CURSOR_HEADER + " header of previous response " +
+            "(optional, when present requested page number is ignored and offers following the position are returned)")
+    @ApiModelProperty(position = 14)
+    private String cursor;
+
+    @ApiParam(value = "whether total number of offers and pages should be returned (optional, default true, " +
+            "when false only information whether next page exists is returned, which is faster)",
+            defaultValue = "true")
+    @ApiModelProperty(position = 15)
+    private boolean count = true;
+
+    @ApiParam(value = "whether title keywords should also match words with one or two typos or without Polish " +
+            "diacritics (optional, default false)",
+            defaultValue = "false")
+    @ApiModelProperty(position = 16)
+    private boolean fuzzy;
+
+    @ApiParam(value = "words searched in title and descriptions of offers, in any grammatical form and with or " +
+            "without Polish diacritics (optional, all words have to be present)")
+    @ApiModelProperty(position = 17, example = "odśnieżania ogrodów")
+    @Size(max = OFFER_DESCRIPTION_MAX_LENGTH,
+            message = "Text search query has too many characters (max " + OFFER_DESCRIPTION_MAX_LENGTH + ").")
+    private String text;
+
     Pageable pageable() {
-        return PageRequest.of(page - FIRST_PAGE, pageSize, Sort.Direction.fromString(order), sort);
+        return PageRequest.of(cursorPaging() ? 0 : page - FIRST_PAGE, pageSize, sortBy());
+    }
+
+    /**
+     * Offers with equal sort property values are ordered by id, so position in listing is always unambiguous.
+     * Relevance is not a property of offer, offers ordered by relevance are left unsorted.
+     */
+    Sort sortBy() {
+        if (relevanceSort()) {
+            return Sort.unsorted();
+        }
+
+        final var direction = Sort.Direction.fromString(order);
+        return Sort.by(direction, OfferCursor.sortProperty(sort)).and(Sort.by(direction, "id"));
+    }
+
+    boolean relevanceSort() {
+        return RELEVANCE_SORT_FIELD.equalsIgnoreCase(sort);
+    }
+
+    boolean cursorPaging() {
+        return StringUtils.isNotEmpty(cursor);
+    }
+
+    OfferCursor cursorAfter(OfferView offer) {
+        return OfferCursor.after(offer, sort, Sort.Direction.fromString(order));
     }
 
-    OfferSpecificationsBuilder filter() {
-        final var builder = new OfferSpecificationsBuilder();
+    /**
+     * @param query URL query string with parameters of offers search request
+     */
+    static OfferSearchParams parse(String query) {
+        final var parameters = new MutablePropertyValues();
+        UriComponentsBuilder.newInstance().query(query).build().getQueryParams().forEach((name, values) ->
+                parameters.add(name, values.stream()
+                        .map(value -> value == null ? "" : URLDecoder.decode(value, StandardCharsets.UTF_8))
+                        .toArray(String[]::new)));
+
+        final var result = new OfferSearchParams();
+        final var binder = new DataBinder(result);
+        binder.bind(parameters);
+        if (binder.getBindingResult().hasErrors()) {
+            throw new InvalidRequestParameterException("Invalid offers search query, wrong values of parameters: " +
+                    binder.getBindingResult().getFieldErrors().stream()
+                            .map(FieldError::getField)
+                            .collect(Collectors.joining(", ")));
+        }
+        return result;
+    }
+
+    OfferFilter filter(OfferTitleIndex titleIndex, OfferSearchTermIndex searchTermIndex) {
+        return OfferFilter.compile(criteria(), titleIndex, searchTermIndex);
+    }
+
+    List<OfferCriterion> criteria() {
+        final List<OfferCriterion> criteria = new ArrayList<>();
 
-        var titleKeywordsIsInvalid = false;
         if (StringUtils.isNotEmpty(title)) {
-            titleKeywordsIsInvalid = true;
-            if ((title.length() > 1) && !StringUtils.isNumeric(title)){
-                var titleKeywords = StringUtils.left(title, OFFER_TITLE_MAX_LENGTH)
-                        .replaceAll("[^" + ACCEPTABLE_TITLE_SEARCH_CHARS + "]", "")
-                        .replaceAll("  ", " ")
-                        .toLowerCase().split(" ");
-                for (String titleKeyword : titleKeywords) {
-                    if (titleKeyword.length() > 1) {
-                        titleKeywordsIsInvalid = false;
-                        builder.with("title", ":", titleKeyword);
-                    }
-                }
+            final var titleKeywords = OfferAnalyzer.keywords(title);
+            if (titleKeywords.isEmpty()) {
+                criteria.add(OfferCriterion.nothing());
+            }
+            for (String titleKeyword : titleKeywords) {
+                criteria.add(fuzzy ? OfferCriterion.titleSimilar(titleKeyword) :
+                        OfferCriterion.titleContains(titleKeyword));
             }
         }
-        if (titleKeywordsIsInvalid) {
-            builder.empty();
+
+        if (StringUtils.isNotEmpty(text)) {
+            final var searchTerms = OfferAnalyzer.analyze(text);
+            if (searchTerms.isEmpty()) {
+                criteria.add(OfferCriterion.nothing());
+            }
+            searchTerms.forEach(term -> criteria.add(OfferCriterion.searchTerm(term)));
+        }
+
+        if (cursorPaging()) {
+            if (relevanceSort()) {
+                throw new InvalidRequestParameterException("Cursor cannot be used with " + RELEVANCE_SORT_FIELD +
+                        " sort property.");
+            }
+            criteria.add(OfferCriterion.after(OfferCursor.decode(cursor, sort, Sort.Direction.fromString(order))));
         }
 
         if (dateMin != 0) {
-            builder.with("date", "≥", new Date(dateMin));
+            criteria.add(OfferCriterion.dateFrom(new Date(dateMin)));
         }
         if (dateMax != 0) {
-            builder.with("date", "≤", new Date(dateMax));
+            criteria.add(OfferCriterion.dateTo(new Date(dateMax)));
         }
 
         if (StringUtils.isNotEmpty(category)) {
-            builder.with("category", ":", new DbCategory(category));
+            criteria.add(OfferCriterion.category(category));
         }
 
         if (priceMin != 0) {
-            builder.with("basePrice", "≥", priceMin);
+            criteria.add(OfferCriterion.priceFrom(priceMin));
         }
         if (priceMax != 0) {
-            builder.with("basePrice", "≤", priceMax);
+            criteria.add(OfferCriterion.priceTo(priceMax));
         }
 
         if (StringUtils.isNotEmpty(city)) {
-            builder.with("city", ":", city);
+            criteria.add(OfferCriterion.cityContains(city));
         }
 
         if (StringUtils.isNotEmpty(voivodeship)) {
-            builder.with("voivodeship", ":", new DbVoivodeship(voivodeship));
+            criteria.add(OfferCriterion.voivodeship(voivodeship));
+        }
+
+        if (userId != null) {
+            criteria.add(OfferCriterion.user(userId));
         }
 
-        return builder;
+        return criteria;
     }
 }
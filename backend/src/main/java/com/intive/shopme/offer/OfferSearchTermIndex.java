@@ -0,0 +1,121 @@
+package com.intive.shopme.offer;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * In-memory inverted index of analyzed offer terms (term -> ids of offers having that term in title or descriptions),
+ * so full text search does not scan {@code OFFER_READ.SEARCH_TERMS} with {@code LIKE '% term %'}.
+ */
+@Log4j2
+@Component
+class OfferSearchTermIndex implements OfferChangeListener {
+
+    private final IndexedOffers indexedOffers;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Set<UUID>> postings = new HashMap<>();
+    private final Map<UUID, Set<String>> terms = new HashMap<>();
+
+    OfferSearchTermIndex(IndexedOffers indexedOffers) {
+        this.indexedOffers = indexedOffers;
+    }
+
+    @PostConstruct
+    void load() {
+        for (IndexedOffer offer : indexedOffers.getAll()) {
+            put(offer.getId(), offer.getSearchTerms());
+        }
+        log.info("Indexed search terms of {} offers ({} distinct terms)", terms.size(), postings.size());
+    }
+
+    /**
+     * @param searchTerms analyzed terms separated by spaces, see {@link OfferAnalyzer#searchTerms(String...)}
+     */
+    void put(UUID id, String searchTerms) {
+        lock.writeLock().lock();
+        try {
+            removeTerms(id);
+
+            final Set<String> offerTerms = new HashSet<>();
+            for (String term : OfferAnalyzer.tokenize(searchTerms)) {
+                offerTerms.add(term);
+                postings.computeIfAbsent(term, key -> new HashSet<>()).add(id);
+            }
+            terms.put(id, offerTerms);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(UUID id) {
+        lock.writeLock().lock();
+        try {
+            removeTerms(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void offerChanged(IndexedOffer previous, IndexedOffer current) {
+        if (current != null) {
+            put(current.getId(), current.getSearchTerms());
+        } else {
+            remove(previous.getId());
+        }
+    }
+
+    /**
+     * @param searchTerms terms analyzed by {@link OfferAnalyzer#analyze(String)}
+     * @return ids of offers having all the terms, intersected starting from the least common term
+     */
+    Set<UUID> find(Collection<String> searchTerms) {
+        lock.readLock().lock();
+        try {
+            final var termPostings = searchTerms.stream()
+                    .map(term -> postings.getOrDefault(term, Collections.emptySet()))
+                    .sorted(Comparator.comparingInt(Set::size))
+                    .collect(toList());
+            if (termPostings.isEmpty()) {
+                return Collections.emptySet();
+            }
+
+            final Set<UUID> result = new HashSet<>(termPostings.get(0));
+            for (int i = 1; i < termPostings.size() && !result.isEmpty(); i++) {
+                result.retainAll(termPostings.get(i));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeTerms(UUID id) {
+        final var offerTerms = terms.remove(id);
+        if (offerTerms == null) {
+            return;
+        }
+
+        for (String term : offerTerms) {
+            final var ids = postings.get(term);
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+}
@@ -1,45 +1,346 @@
 package com.intive.shopme.offer;
 
 import com.intive.shopme.model.db.DbOffer;
+import com.intive.shopme.model.db.DbOfferChange;
+import com.intive.shopme.model.db.DbOfferRead;
 import com.intive.shopme.model.db.DbUser;
+import com.intive.shopme.model.rest.OfferBatch;
+import com.intive.shopme.model.rest.OfferChanges;
+import com.intive.shopme.model.rest.OfferEvent;
+import com.intive.shopme.model.rest.OfferFacets;
+import com.intive.shopme.model.rest.OfferSuggestions;
+import com.intive.shopme.model.rest.OfferView;
 import org.springframework.dao.DataRetrievalFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.support.PageableExecutionUtils;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import javax.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static com.intive.shopme.config.AppConfig.CHANGES_POLL_BATCH_SIZE;
+import static com.intive.shopme.config.AppConfig.EXPORT_FETCH_SIZE;
 
 @Service
 @Transactional
 public class OfferService {
 
     private final OfferRepository repository;
+    private final OfferReadRepository readRepository;
+    private final OfferChangeRepository changeRepository;
+    private final OfferChangeLog changeLog;
+    private final OfferBulkRepository bulkRepository;
+    private final OfferCountCache countCache;
+    private final OfferResultCache resultCache;
+    private final OfferFacetIndex facetIndex;
+    private final OfferSuggestionIndex suggestionIndex;
+    private final OfferRelevanceIndex relevanceIndex;
+    private final IndexedOffers indexedOffers;
+    private final List<OfferChangeListener> listeners;
+    private final TransactionTemplate readOnlyTransaction;
+    private long polledSeq;
 
-    OfferService(OfferRepository repository) {
+    OfferService(OfferRepository repository, OfferReadRepository readRepository,
+                 OfferChangeRepository changeRepository, OfferChangeLog changeLog,
+                 OfferBulkRepository bulkRepository,
+                 OfferCountCache countCache, OfferResultCache resultCache, OfferFacetIndex facetIndex,
+                 OfferSuggestionIndex suggestionIndex, OfferRelevanceIndex relevanceIndex,
+                 IndexedOffers indexedOffers, List<OfferChangeListener> listeners,
+                 PlatformTransactionManager transactionManager) {
         this.repository = repository;
+        this.readRepository = readRepository;
+        this.changeRepository = changeRepository;
+        this.changeLog = changeLog;
+        this.bulkRepository = bulkRepository;
+        this.countCache = countCache;
+        this.resultCache = resultCache;
+        this.facetIndex = facetIndex;
+        this.suggestionIndex = suggestionIndex;
+        this.relevanceIndex = relevanceIndex;
+        this.indexedOffers = indexedOffers;
+        this.listeners = listeners;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.polledSeq = indexedOffers.getLoadedSeq();
+    }
+
+    /**
+     * Cached pages are returned without starting a transaction (and taking a connection), only a search runs in one.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Page<OfferView> getAll(OfferFilter filter, Pageable pageable) {
+        if (filter.matchesNothing()) {
+            return new PageImpl<>(List.of(), pageable, 0);
+        }
+
+        return resultCache.get(filter, pageable, () -> readOnlyTransaction.execute(status -> search(filter, pageable)));
+    }
+
+    private Page<OfferView> search(OfferFilter filter, Pageable pageable) {
+        final var offers = readRepository.findViews(filter, pageable.getSort(), pageable.getOffset(),
+                pageable.getPageSize());
+        return PageableExecutionUtils.getPage(offers, pageable,
+                () -> countCache.get(filter.key(), () -> readRepository.count(filter)));
+    }
+
+    /**
+     * Matching offers are found and ranked in memory, only offers of the requested page are loaded from database.
+     */
+    @Transactional(readOnly = true)
+    public Page<OfferView> getMostRelevant(OfferFilter filter, Pageable pageable) {
+        if (filter.matchesNothing()) {
+            return new PageImpl<>(List.of(), pageable, 0);
+        }
+
+        final var candidates = facetIndex.find(filter);
+        final var offset = (int) Math.min(pageable.getOffset(), candidates.size());
+        final var ranked = relevanceIndex.top(candidates, filter.titleKeywords(), offset + pageable.getPageSize());
+        final var pageIds = ranked.subList(Math.min(offset, ranked.size()), ranked.size());
+        if (pageIds.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, candidates.size());
+        }
+
+        final var offers = findViewsByIds(pageIds);
+        final var result = pageIds.stream()
+                .map(offers::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        return new PageImpl<>(result, pageable, candidates.size());
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<OfferView> getSlice(OfferFilter filter, Pageable pageable) {
+        if (filter.matchesNothing()) {
+            return new SliceImpl<>(List.of(), pageable, false);
+        }
+
+        final var offers = readRepository.findViews(filter, pageable.getSort(), pageable.getOffset(),
+                pageable.getPageSize() + 1);
+        final var hasNext = offers.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? offers.subList(0, pageable.getPageSize()) : offers, pageable, hasNext);
+    }
+
+    /**
+     * Runs in the transaction for the whole time offers are consumed, as the cursor is open until the last one.
+     */
+    @Transactional(readOnly = true)
+    public void export(OfferFilter filter, Sort sort, Consumer<OfferView> consumer) {
+        if (filter.matchesNothing()) {
+            return;
+        }
+
+        readRepository.streamViews(filter, sort, EXPORT_FETCH_SIZE, consumer);
+    }
+
+    /**
+     * @param ids ids of offers to be loaded in single query, without duplicates
+     * @return offers in the order of requested ids, and requested ids of offers which do not exist
+     */
+    @Transactional(readOnly = true)
+    public OfferBatch getBatch(List<UUID> ids) {
+        final var offers = findViewsByIds(ids);
+        final List<OfferView> found = new ArrayList<>();
+        final List<UUID> missing = new ArrayList<>();
+        ids.forEach(id -> {
+            if (offers.containsKey(id)) {
+                found.add(offers.get(id));
+            } else {
+                missing.add(id);
+            }
+        });
+        return new OfferBatch(found, missing);
+    }
+
+    /**
+     * Offers changed many times are returned once, with their current state (or as deleted).
+     */
+    @Transactional(readOnly = true)
+    public OfferChanges getChanges(long since, int limit) {
+        final var changes = changeRepository.findAllBySeqGreaterThanOrderBySeq(since, PageRequest.of(0, limit + 1));
+        final var hasMore = changes.size() > limit;
+        final var returned = hasMore ? changes.subList(0, limit) : changes;
+
+        final Map<UUID, OfferEvent.Type> lastChanges = new LinkedHashMap<>();
+        returned.forEach(change -> {
+            lastChanges.remove(change.getOfferId());
+            lastChanges.put(change.getOfferId(), change.getType());
+        });
+
+        final var existingIds = lastChanges.entrySet().stream()
+                .filter(change -> change.getValue() != OfferEvent.Type.DELETED)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+        final var offers = findViewsByIds(existingIds);
+
+        final List<OfferView> changed = new ArrayList<>();
+        final List<UUID> deleted = new ArrayList<>();
+        lastChanges.keySet().forEach(id -> {
+            if (offers.containsKey(id)) {
+                changed.add(offers.get(id));
+            } else {
+                deleted.add(id);
+            }
+        });
+        final var next = returned.isEmpty() ? since : returned.get(returned.size() - 1).getSeq();
+        return new OfferChanges(changed, deleted, next, hasMore);
     }
 
-    Page<DbOffer> getAll(Specification<DbOffer> specification, Pageable pageable) {
-        return repository.findAll(specification, pageable);
+    OfferFacets getFacets(OfferFilter filter) {
+        return facetIndex.count(filter);
     }
 
-    DbOffer get(UUID id) {
+    OfferSuggestions getSuggestions(String prefix, int limit) {
+        return suggestionIndex.suggest(prefix, limit);
+    }
+
+    public DbOffer get(UUID id) {
         return repository.findById(id)
                 .orElseThrow(() -> new DataRetrievalFailureException("Offer with id: " + id + " not found"));
     }
 
-    DbOffer createOrUpdate(DbOffer dbOffer) {
-        return repository.save(dbOffer);
+    @Transactional(readOnly = true)
+    public OfferView getView(UUID id) {
+        return readRepository.findById(id)
+                .map(OfferReadRepositoryCustomImpl::convertToView)
+                .orElseThrow(() -> new DataRetrievalFailureException("Offer with id: " + id + " not found"));
+    }
+
+    public DbOffer createOrUpdate(DbOffer dbOffer) {
+        setSearchTerms(dbOffer);
+        // asked from database, the index of this instance may not have applied changes of other instances yet
+        final var created = dbOffer.getId() == null || !repository.existsById(dbOffer.getId());
+        final var result = repository.save(dbOffer);
+        readRepository.save(DbOfferRead.of(result));
+        final var current = IndexedOffer.of(result);
+        changeLog.append(result.getId(), created ? OfferEvent.Type.CREATED : OfferEvent.Type.UPDATED,
+                seq -> apply(current.getId(), current, seq));
+        return result;
+    }
+
+    /**
+     * Inserts new offers with batched statements, without checking whether they already exist.
+     *
+     * @param offers new offers with unique ids
+     */
+    public void createAll(List<DbOffer> offers) {
+        offers.forEach(OfferService::setSearchTerms);
+        bulkRepository.insertAll(offers);
+        offers.stream().map(IndexedOffer::of).forEach(offer -> changeLog.append(offer.getId(),
+                OfferEvent.Type.CREATED, seq -> apply(offer.getId(), offer, seq)));
     }
 
-    void delete(UUID id) {
+    public void delete(UUID id) {
         repository.deleteById(id);
+        readRepository.deleteById(id);
+        changeLog.append(id, OfferEvent.Type.DELETED, seq -> apply(id, null, seq));
     }
 
     public void deleteAllByUser(DbUser user) {
         var offers = repository.findAllByUser(user);
         repository.deleteInBatch(offers);
+        readRepository.deleteAllByUserId(user.getId());
+        offers.forEach(offer -> changeLog.append(offer.getId(), OfferEvent.Type.DELETED,
+                seq -> apply(offer.getId(), null, seq)));
+    }
+
+    /**
+     * Keeps owner's contact details presented with offers up to date. Only when any of them has changed, offers of
+     * the owner are updated and logged as changed, so cached pages with them (and only them) are invalidated.
+     */
+    public void ownerChanged(DbUser user) {
+        final var contact = readRepository.findFirstByUserId(user.getId());
+        if (!contact.isPresent() || !contactChanged(contact.get(), user)) {
+            return;
+        }
+
+        readRepository.updateOwner(user);
+        for (OfferReadRepository.OfferFields offer : readRepository.findAllFieldsByUserId(user.getId())) {
+            final var current = IndexedOffer.of(offer);
+            changeLog.append(current.getId(), OfferEvent.Type.UPDATED, seq -> apply(current.getId(), current, seq));
+        }
+    }
+
+    private static boolean contactChanged(OfferReadRepository.OwnerContact contact, DbUser user) {
+        return !Objects.equals(contact.getName(), user.getName())
+                || !Objects.equals(contact.getSurname(), user.getSurname())
+                || !Objects.equals(contact.getEmail(), user.getEmail())
+                || !Objects.equals(contact.getPhoneNumber(), user.getPhoneNumber())
+                || !Objects.equals(contact.getAdditionalInfo(), user.getAdditionalInfo());
+    }
+
+    /**
+     * Applies changes committed by other application instances, so their offers are found by in-memory indexes of this
+     * one too. Own changes have already been applied after commit and are skipped. Current offers are read from
+     * primary database (not a read-only transaction), as a lagging replica could return them from before the change.
+     */
+    @Scheduled(fixedDelayString = "${offer.changes-poll-interval}",
+            initialDelayString = "${offer.changes-poll-interval}")
+    public synchronized void pollChanges() {
+        List<DbOfferChange> changes;
+        do {
+            changes = changeRepository.findAllBySeqGreaterThanOrderBySeq(polledSeq,
+                    PageRequest.of(0, CHANGES_POLL_BATCH_SIZE));
+            final Map<UUID, Long> lastSeqs = new LinkedHashMap<>();
+            changes.forEach(change -> lastSeqs.put(change.getOfferId(), change.getSeq()));
+            lastSeqs.entrySet().removeIf(change -> indexedOffers.isApplied(change.getKey(), change.getValue()));
+
+            if (!lastSeqs.isEmpty()) {
+                final Map<UUID, IndexedOffer> offers = new HashMap<>();
+                readRepository.findAllFieldsByIdIn(lastSeqs.keySet())
+                        .forEach(offer -> offers.put(offer.getId(), IndexedOffer.of(offer)));
+                lastSeqs.forEach((id, seq) -> apply(id, offers.get(id), seq));
+            }
+            if (!changes.isEmpty()) {
+                polledSeq = changes.get(changes.size() - 1).getSeq();
+            }
+        } while (changes.size() == CHANGES_POLL_BATCH_SIZE);
+    }
+
+    private static void setSearchTerms(DbOffer dbOffer) {
+        dbOffer.setSearchTerms(OfferAnalyzer.searchTerms(dbOffer.getTitle(), dbOffer.getBaseDescription(),
+                dbOffer.getExtendedDescription(), dbOffer.getExtraDescription()));
+    }
+
+    private Map<UUID, OfferView> findViewsByIds(Collection<UUID> ids) {
+        final Map<UUID, OfferView> result = new HashMap<>();
+        if (!ids.isEmpty()) {
+            readRepository.findViews(OfferFilter.compile(List.of(OfferCriterion.idIn(Set.copyOf(ids)))),
+                    Sort.unsorted(), 0, ids.size()).forEach(offer -> result.put(offer.getId(), offer));
+        }
+        return result;
+    }
+
+    /**
+     * Called after commit of the change (or when it is polled). Concurrent changes of an offer are passed on to
+     * listeners in the order of their sequence numbers, see
+     * {@link IndexedOffers#apply(UUID, IndexedOffer, long, OfferChangeListener)}.
+     */
+    private void apply(UUID id, IndexedOffer current, long seq) {
+        indexedOffers.apply(id, current, seq, this::notifyListeners);
+        indexedOffers.forgetDeletedBefore(changeLog.lowestSeqCommitting());
+    }
+
+    private void notifyListeners(IndexedOffer previous, IndexedOffer current) {
+        listeners.forEach(listener -> listener.offerChanged(previous, current));
     }
 }
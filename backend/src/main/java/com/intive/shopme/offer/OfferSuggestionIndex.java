@@ -0,0 +1,79 @@
+package com.intive.shopme.offer;
+
+import com.intive.shopme.model.rest.OfferSuggestions;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Typeahead completions of offer titles and cities, weighted by number of offers having the same (normalized)
+ * title or city. Kept entirely in memory and updated on every offer change, suggestions are read concurrently.
+ */
+@Log4j2
+@Component
+class OfferSuggestionIndex implements OfferChangeListener {
+
+    private final IndexedOffers indexedOffers;
+    private final PrefixTree titles = new PrefixTree();
+    private final PrefixTree cities = new PrefixTree();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    OfferSuggestionIndex(IndexedOffers indexedOffers) {
+        this.indexedOffers = indexedOffers;
+    }
+
+    @PostConstruct
+    void load() {
+        indexedOffers.getAll().forEach(offer -> offerChanged(null, offer));
+        log.info("Indexed suggestions of {} offers", indexedOffers.getAll().size());
+    }
+
+    @Override
+    public void offerChanged(IndexedOffer previous, IndexedOffer current) {
+        lock.writeLock().lock();
+        try {
+            if (previous != null) {
+                update(titles, previous.getTitle(), false);
+                update(cities, previous.getCity(), false);
+            }
+            if (current != null) {
+                update(titles, current.getTitle(), true);
+                update(cities, current.getCity(), true);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    OfferSuggestions suggest(String prefix, int limit) {
+        final var normalizedPrefix = normalize(prefix);
+        lock.readLock().lock();
+        try {
+            return new OfferSuggestions(titles.complete(normalizedPrefix, limit),
+                    cities.complete(normalizedPrefix, limit));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void update(PrefixTree tree, String value, boolean add) {
+        final var key = normalize(value);
+        if (key.isEmpty()) {
+            return;
+        }
+
+        if (add) {
+            tree.add(key);
+        } else {
+            tree.remove(key);
+        }
+    }
+
+    static String normalize(String value) {
+        return StringUtils.normalizeSpace(StringUtils.defaultString(value)).toLowerCase();
+    }
+}
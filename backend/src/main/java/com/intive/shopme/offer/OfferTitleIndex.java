@@ -0,0 +1,214 @@
+package com.intive.shopme.offer;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * In-memory inverted index of offer title terms (term -> ids of offers having that term in title).
+ * <p>
+ * Titles are split by {@link OfferAnalyzer}, so "keyword is a substring of some term" gives exactly the same answer
+ * as {@code lower(title) LIKE '%keyword%'}, without scanning OFFER_READ. For typo tolerant search terms are also
+ * kept in a trie with diacritics folded, to be matched with {@link LevenshteinAutomaton}.
+ * <p>
+ * Terms containing a keyword are not found by checking every term, but with {@link SubstringIndex} of folded terms.
+ */
+@Log4j2
+@Component
+class OfferTitleIndex implements OfferChangeListener {
+
+    /**
+     * Above this number of matching offers it is cheaper to let the database evaluate title keywords itself
+     * than to send a huge list of ids as query parameters.
+     */
+    static final int MAX_ID_FILTER_SIZE = 1000;
+
+    private final IndexedOffers indexedOffers;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Set<UUID>> postings = new HashMap<>();
+    private final Map<UUID, Set<String>> terms = new HashMap<>();
+    private final PrefixTree foldedTerms = new PrefixTree();
+    private final Map<String, Set<String>> termsByFolded = new HashMap<>();
+    private final SubstringIndex foldedSubstrings = new SubstringIndex();
+
+    OfferTitleIndex(IndexedOffers indexedOffers) {
+        this.indexedOffers = indexedOffers;
+    }
+
+    @PostConstruct
+    void load() {
+        for (IndexedOffer offer : indexedOffers.getAll()) {
+            put(offer.getId(), offer.getTitle());
+        }
+        log.info("Indexed titles of {} offers ({} distinct terms)", terms.size(), postings.size());
+    }
+
+    void put(UUID id, String title) {
+        lock.writeLock().lock();
+        try {
+            removeTerms(id);
+
+            final Set<String> offerTerms = new HashSet<>(OfferAnalyzer.tokenize(title));
+            for (String term : offerTerms) {
+                postings.computeIfAbsent(term, key -> {
+                    termAdded(key);
+                    return new HashSet<>();
+                }).add(id);
+            }
+            terms.put(id, offerTerms);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(UUID id) {
+        lock.writeLock().lock();
+        try {
+            removeTerms(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void offerChanged(IndexedOffer previous, IndexedOffer current) {
+        if (current != null) {
+            put(current.getId(), current.getTitle());
+        } else {
+            remove(previous.getId());
+        }
+    }
+
+    /**
+     * @param keywords lower case title keywords, all of them have to be present in the title
+     * @return ids of offers which titles contain every keyword
+     */
+    Set<UUID> find(Collection<String> keywords) {
+        return findByTerms(keywords.stream().map(this::termsContaining).collect(toList()));
+    }
+
+    /**
+     * @param alternatives for every keyword terms matching it
+     * @return ids of offers having in title at least one of the terms of every keyword
+     */
+    Set<UUID> findByTerms(Collection<Set<String>> alternatives) {
+        lock.readLock().lock();
+        try {
+            Set<UUID> result = null;
+            for (Set<String> terms : alternatives) {
+                final var matching = findHavingAny(terms);
+                if (result == null || matching.size() < result.size()) {
+                    if (result != null) {
+                        matching.retainAll(result);
+                    }
+                    result = matching;
+                } else {
+                    result.retainAll(matching);
+                }
+
+                if (result.isEmpty()) {
+                    break;
+                }
+            }
+            return result != null ? result : Collections.emptySet();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    Set<String> termsContaining(String keyword) {
+        lock.readLock().lock();
+        try {
+            final Set<String> result = new HashSet<>();
+            for (String folded : foldedSubstrings.termsContaining(OfferAnalyzer.fold(keyword))) {
+                for (String term : termsByFolded.get(folded)) {
+                    if (term.contains(keyword)) {
+                        result.add(term);
+                    }
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return terms containing the keyword or different from it by at most {@code maxDistance} edits, ignoring
+     * diacritics
+     */
+    Set<String> termsSimilar(String keyword, int maxDistance) {
+        final var foldedKeyword = OfferAnalyzer.fold(keyword);
+        lock.readLock().lock();
+        try {
+            final Set<String> result = new HashSet<>();
+            final List<String> similar = foldedTerms.match(new LevenshteinAutomaton(foldedKeyword, maxDistance));
+            similar.forEach(folded -> result.addAll(termsByFolded.get(folded)));
+            foldedSubstrings.termsContaining(foldedKeyword)
+                    .forEach(folded -> result.addAll(termsByFolded.get(folded)));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeTerms(UUID id) {
+        final var offerTerms = terms.remove(id);
+        if (offerTerms == null) {
+            return;
+        }
+
+        for (String term : offerTerms) {
+            final var ids = postings.get(term);
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                postings.remove(term);
+                termRemoved(term);
+            }
+        }
+    }
+
+    private void termAdded(String term) {
+        final var folded = OfferAnalyzer.fold(term);
+        foldedTerms.add(folded);
+        termsByFolded.computeIfAbsent(folded, key -> {
+            foldedSubstrings.add(key);
+            return new HashSet<>();
+        }).add(term);
+    }
+
+    private void termRemoved(String term) {
+        final var folded = OfferAnalyzer.fold(term);
+        foldedTerms.remove(folded);
+        final var originals = termsByFolded.get(folded);
+        originals.remove(term);
+        if (originals.isEmpty()) {
+            termsByFolded.remove(folded);
+            foldedSubstrings.remove(folded);
+        }
+    }
+
+    private Set<UUID> findHavingAny(Set<String> terms) {
+        final Set<UUID> result = new HashSet<>();
+        for (String term : terms) {
+            final var ids = postings.get(term);
+            if (ids != null) {
+                result.addAll(ids);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,204 @@
+package com.intive.shopme.offer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Trie of keys weighted by number of occurrences. Children of every node are kept in sorted arrays instead of maps,
+ * so the tree stays compact for the large number of nodes with a single child.
+ * <p>
+ * Every node also keeps the maximum weight of keys in its subtree, so completions are searched for best first and
+ * subtrees which cannot contain any of the top keys are never visited. Reads do not modify the tree, so it may be
+ * read concurrently, but not while being modified.
+ */
+class PrefixTree {
+
+    /**
+     * The heaviest first, then in key order. Subtree goes before a key equal to its prefix, as its keys may be equally
+     * heavy and come earlier in key order.
+     */
+    private static final Comparator<Completion> BEST_FIRST = Comparator.<Completion>comparingInt(c -> -c.weight)
+            .thenComparing(c -> c.key)
+            .thenComparing(c -> c.node == null);
+
+    private final Node root = new Node();
+
+    void add(String key) {
+        final var path = new Node[key.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < key.length(); i++) {
+            path[i + 1] = path[i].childOrCreate(key.charAt(i));
+        }
+
+        final var weight = ++path[key.length()].weight;
+        for (Node node : path) {
+            node.maxWeight = Math.max(node.maxWeight, weight);
+        }
+    }
+
+    void remove(String key) {
+        final var path = new Node[key.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < key.length(); i++) {
+            path[i + 1] = path[i].child(key.charAt(i));
+            if (path[i + 1] == null) {
+                return;
+            }
+        }
+
+        final var node = path[key.length()];
+        if (node.weight == 0) {
+            return;
+        }
+        node.weight--;
+        for (int i = key.length(); i > 0 && path[i].isEmpty(); i--) {
+            path[i - 1].removeChild(key.charAt(i - 1));
+        }
+        // parents are updated only as long as the maximum changes
+        for (int i = key.length(); i >= 0; i--) {
+            if (!path[i].updateMaxWeight()) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * @return at most {@code limit} keys starting with the prefix, the most frequent first
+     */
+    List<String> complete(String prefix, int limit) {
+        var node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.child(prefix.charAt(i));
+        }
+        if (node == null || node.maxWeight == 0) {
+            return List.of();
+        }
+
+        final List<String> result = new ArrayList<>(limit);
+        final var queue = new PriorityQueue<>(BEST_FIRST);
+        queue.add(new Completion(prefix, node.maxWeight, node));
+        while (!queue.isEmpty() && result.size() < limit) {
+            final var best = queue.poll();
+            if (best.node == null) {
+                result.add(best.key);
+                continue;
+            }
+
+            if (best.node.weight > 0) {
+                queue.add(new Completion(best.key, best.node.weight, null));
+            }
+            for (int i = 0; i < best.node.size; i++) {
+                final var child = best.node.children[i];
+                queue.add(new Completion(best.key + best.node.labels[i], child.maxWeight, child));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return keys accepted by the automaton, subtrees which cannot lead to an accepted key are skipped
+     */
+    List<String> match(LevenshteinAutomaton automaton) {
+        final List<String> result = new ArrayList<>();
+        match(root, automaton.start(), new StringBuilder(), automaton, result);
+        return result;
+    }
+
+    private static void match(Node node, int[] state, StringBuilder key, LevenshteinAutomaton automaton,
+                              List<String> result) {
+        if (node.weight > 0 && automaton.isMatch(state)) {
+            result.add(key.toString());
+        }
+
+        for (int i = 0; i < node.size; i++) {
+            final var next = automaton.step(state, node.labels[i]);
+            if (automaton.canMatch(next)) {
+                key.append(node.labels[i]);
+                match(node.children[i], next, key, automaton, result);
+                key.setLength(key.length() - 1);
+            }
+        }
+    }
+
+    private static final class Node {
+
+        private char[] labels = new char[0];
+        private Node[] children = new Node[0];
+        private int size;
+        private int weight;
+        private int maxWeight;
+
+        private Node child(char label) {
+            final var index = Arrays.binarySearch(labels, 0, size, label);
+            return index >= 0 ? children[index] : null;
+        }
+
+        private Node childOrCreate(char label) {
+            final var index = Arrays.binarySearch(labels, 0, size, label);
+            if (index >= 0) {
+                return children[index];
+            }
+
+            final var insertion = -index - 1;
+            if (size == labels.length) {
+                labels = Arrays.copyOf(labels, size + 1);
+                children = Arrays.copyOf(children, size + 1);
+            }
+            System.arraycopy(labels, insertion, labels, insertion + 1, size - insertion);
+            System.arraycopy(children, insertion, children, insertion + 1, size - insertion);
+            final var result = new Node();
+            labels[insertion] = label;
+            children[insertion] = result;
+            size++;
+            return result;
+        }
+
+        private void removeChild(char label) {
+            final var index = Arrays.binarySearch(labels, 0, size, label);
+            if (index < 0) {
+                return;
+            }
+
+            System.arraycopy(labels, index + 1, labels, index, size - index - 1);
+            System.arraycopy(children, index + 1, children, index, size - index - 1);
+            size--;
+            children[size] = null;
+        }
+
+        private boolean isEmpty() {
+            return weight == 0 && size == 0;
+        }
+
+        /**
+         * @return whether the maximum weight of the subtree has changed
+         */
+        private boolean updateMaxWeight() {
+            var result = weight;
+            for (int i = 0; i < size; i++) {
+                result = Math.max(result, children[i].maxWeight);
+            }
+            final var changed = result != maxWeight;
+            maxWeight = result;
+            return changed;
+        }
+    }
+
+    /**
+     * Key with its weight, or subtree of keys starting with it, with the maximum weight of them.
+     */
+    private static final class Completion {
+
+        private final String key;
+        private final int weight;
+        private final Node node;
+
+        private Completion(String key, int weight, Node node) {
+            this.key = key;
+            this.weight = weight;
+            this.node = node;
+        }
+    }
+}
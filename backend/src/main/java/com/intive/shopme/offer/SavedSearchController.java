@@ -0,0 +1,127 @@
+package com.intive.shopme.offer;
+
+import com.intive.shopme.common.ConvertibleController;
+import com.intive.shopme.model.db.DbSavedSearch;
+import com.intive.shopme.model.rest.SavedSearchView;
+import com.intive.shopme.model.rest.SavedSearchWrite;
+import com.intive.shopme.model.rest.UserContext;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import springfox.documentation.annotations.ApiIgnore;
+
+import javax.validation.Valid;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.intive.shopme.config.ApiUrl.SAVED_SEARCHES;
+import static com.intive.shopme.config.ApiUrl.SAVED_SEARCHES_NOTIFICATIONS;
+import static com.intive.shopme.config.SwaggerApiInfoConfigurer.Operations.BAD_REQUEST;
+import static com.intive.shopme.config.SwaggerApiInfoConfigurer.Operations.CREATED;
+import static com.intive.shopme.config.SwaggerApiInfoConfigurer.Operations.DELETED;
+import static com.intive.shopme.config.SwaggerApiInfoConfigurer.Operations.FORBIDDEN;
+import static com.intive.shopme.config.SwaggerApiInfoConfigurer.Operations.NOT_FOUND;
+import static com.intive.shopme.config.SwaggerApiInfoConfigurer.Operations.SUCCESS;
+import static com.intive.shopme.config.SwaggerApiInfoConfigurer.Operations.UNAUTHORIZED;
+import static com.intive.shopme.config.SwaggerApiInfoConfigurer.Operations.VALIDATION_ERROR;
+
+@RestController
+@RequestMapping(value = SAVED_SEARCHES)
+@Api(value = "saved search", description = "REST API for saved offers searches", tags = "Saved searches")
+class SavedSearchController extends ConvertibleController<DbSavedSearch, SavedSearchView, SavedSearchWrite> {
+
+    private final SavedSearchService service;
+
+    SavedSearchController(SavedSearchService service) {
+        super(DbSavedSearch.class, SavedSearchView.class, SavedSearchWrite.class);
+        this.service = service;
+    }
+
+    @PostMapping
+    @ResponseStatus(value = HttpStatus.CREATED)
+    @ApiResponses(value = {
+            @ApiResponse(code = 201, message = CREATED),
+            @ApiResponse(code = 400, message = BAD_REQUEST),
+            @ApiResponse(code = 401, message = UNAUTHORIZED),
+            @ApiResponse(code = 422, message = VALIDATION_ERROR)
+    })
+    @ApiOperation(value = "Saves offers search, to be notified about new offers matching it",
+            response = SavedSearchView.class)
+    @PreAuthorize("hasAnyAuthority('USER')")
+    SavedSearchView add(@ApiParam(value = "Offers search to be saved", required = true)
+                        @Valid @RequestBody SavedSearchWrite savedSearch,
+                        @ApiIgnore @AuthenticationPrincipal UserContext userContext) {
+        return convertToView(service.create(userContext.getUserId(), savedSearch.getQuery()));
+    }
+
+    @GetMapping
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = SUCCESS),
+            @ApiResponse(code = 401, message = UNAUTHORIZED)
+    })
+    @ApiOperation(value = "Returns all searches saved by current user")
+    @PreAuthorize("hasAnyAuthority('USER')")
+    List<SavedSearchView> getAll(@ApiIgnore @AuthenticationPrincipal UserContext userContext) {
+        return convertToView(service.getAllByUser(userContext.getUserId()));
+    }
+
+    @GetMapping(value = SAVED_SEARCHES_NOTIFICATIONS, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = SUCCESS),
+            @ApiResponse(code = 401, message = UNAUTHORIZED)
+    })
+    @ApiOperation(value = "Streams Server-Sent Events with new offers matching searches saved by current user, " +
+            "one \"match\" event per offer and saved search")
+    @PreAuthorize("hasAnyAuthority('USER')")
+    SseEmitter notifications(@ApiIgnore @AuthenticationPrincipal UserContext userContext) {
+        return service.subscribe(userContext.getUserId());
+    }
+
+    @DeleteMapping(value = "{id}")
+    @ResponseStatus(value = HttpStatus.OK)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = DELETED),
+            @ApiResponse(code = 401, message = UNAUTHORIZED),
+            @ApiResponse(code = 403, message = FORBIDDEN),
+            @ApiResponse(code = 404, message = NOT_FOUND)
+    })
+    @ApiOperation(value = "Removes saved search by id", response = void.class)
+    @PreAuthorize("hasAnyAuthority('USER')")
+    ResponseEntity<?> delete(@ApiParam(value = "ID number of saved search to be removed", required = true)
+                             @PathVariable UUID id, @ApiIgnore @AuthenticationPrincipal UserContext userContext) {
+        if (!service.get(id).getUserId().equals(userContext.getUserId())) {
+            return new ResponseEntity<>(Map.of("message", FORBIDDEN), HttpStatus.FORBIDDEN);
+        }
+
+        service.delete(id);
+        return new ResponseEntity<>(null, HttpStatus.OK);
+    }
+
+    @Override
+    protected SavedSearchView convertToView(DbSavedSearch dbSavedSearch) {
+        final var result = new SavedSearchView();
+
+        result.setId(dbSavedSearch.getId());
+        result.setQuery(dbSavedSearch.getQuery());
+        result.setDate(dbSavedSearch.getDate());
+
+        return result;
+    }
+}
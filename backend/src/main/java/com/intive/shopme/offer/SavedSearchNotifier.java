@@ -0,0 +1,103 @@
+package com.intive.shopme.offer;
+
+import com.intive.shopme.model.rest.SavedSearchMatch;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Server-Sent Events streams of users waiting for new offers matching their saved searches. A user may have several
+ * streams open (e.g. in many browser tabs), every one of them receives all matches.
+ * <p>
+ * Matches are only queued for streams, which are written by {@link SseSender} threads, so the transaction which has
+ * created the offer never waits for clients. Matches exceeding {@value #PENDING_MATCHES_MAX} not sent yet to a stream
+ * are dropped.
+ */
+@Log4j2
+@Component
+class SavedSearchNotifier {
+
+    static final String MATCH_EVENT = "match";
+
+    private static final int PENDING_MATCHES_MAX = 100;
+
+    private final long timeout;
+    private final SseSender sender;
+    private final Map<UUID, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    SavedSearchNotifier(@Value("${offer.saved-search.notifications-timeout}") long timeout,
+                        @Value("${offer.saved-search.sender-threads}") int senderThreads,
+                        @Value("${offer.saved-search.send-timeout}") long sendTimeout) {
+        this.timeout = timeout;
+        this.sender = new SseSender("saved-search-notifier", senderThreads, sendTimeout);
+    }
+
+    SseEmitter subscribe(UUID userId) {
+        final var subscriber = new Subscriber();
+        final var emitter = new SseEmitter(timeout);
+        subscriber.stream = sender.open(emitter, subscriber::write, () -> unsubscribe(userId, subscriber));
+        subscribers.computeIfAbsent(userId, key -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        return emitter;
+    }
+
+    /**
+     * @return users having notifications stream open in this application instance
+     */
+    Set<UUID> subscribedUsers() {
+        return Set.copyOf(subscribers.keySet());
+    }
+
+    void send(UUID userId, SavedSearchMatch match) {
+        final var userSubscribers = subscribers.get(userId);
+        if (userSubscribers == null) {
+            return;
+        }
+
+        for (Subscriber subscriber : userSubscribers) {
+            if (subscriber.pending.offer(match)) {
+                sender.flush(subscriber.stream);
+            } else {
+                log.debug("Saved search notifications stream of user {} is not read, match is dropped", userId);
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sender.shutdown();
+    }
+
+    private void unsubscribe(UUID userId, Subscriber subscriber) {
+        subscribers.computeIfPresent(userId, (key, userSubscribers) -> {
+            userSubscribers.remove(subscriber);
+            return userSubscribers.isEmpty() ? null : userSubscribers;
+        });
+    }
+
+    private static final class Subscriber {
+
+        private final Queue<SavedSearchMatch> pending = new ArrayBlockingQueue<>(PENDING_MATCHES_MAX);
+        private SseSender.Stream stream;
+
+        private boolean write(SseEmitter emitter) throws IOException {
+            final var match = pending.poll();
+            if (match == null) {
+                return false;
+            }
+
+            emitter.send(SseEmitter.event().name(MATCH_EVENT).data(match, MediaType.APPLICATION_JSON));
+            return true;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.intive.shopme.offer;
+
+import com.intive.shopme.model.db.DbSavedSearch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+interface SavedSearchRepository extends JpaRepository<DbSavedSearch, UUID> {
+
+    List<DbSavedSearch> findAllByUserIdOrderByDate(UUID userId);
+
+    List<DbSavedSearch> findAllByUserIdIn(Collection<UUID> userIds);
+
+    long countByUserId(UUID userId);
+}
@@ -0,0 +1,82 @@
+package com.intive.shopme.offer;
+
+import com.intive.shopme.model.db.DbSavedSearch;
+import com.intive.shopme.model.db.DbUser;
+import com.intive.shopme.validation.InvalidRequestParameterException;
+import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.transaction.Transactional;
+import javax.validation.Validator;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static com.intive.shopme.config.AppConfig.SAVED_SEARCHES_PER_USER_MAX;
+
+@Service
+@Transactional
+public class SavedSearchService {
+
+    private final SavedSearchRepository repository;
+    private final OfferPercolator percolator;
+    private final SavedSearchNotifier notifier;
+    private final Validator validator;
+
+    SavedSearchService(SavedSearchRepository repository, OfferPercolator percolator, SavedSearchNotifier notifier,
+                       Validator validator) {
+        this.repository = repository;
+        this.percolator = percolator;
+        this.notifier = notifier;
+        this.validator = validator;
+    }
+
+    DbSavedSearch create(UUID userId, String query) {
+        final var violations = validator.validate(OfferSearchParams.parse(query));
+        if (!violations.isEmpty()) {
+            throw new InvalidRequestParameterException("Invalid offers search query: " + violations.stream()
+                    .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                    .collect(Collectors.joining(", ")));
+        }
+        if (repository.countByUserId(userId) >= SAVED_SEARCHES_PER_USER_MAX) {
+            throw new InvalidRequestParameterException("Cannot save more than " + SAVED_SEARCHES_PER_USER_MAX +
+                    " searches.");
+        }
+
+        final var filter = OfferPercolator.compile(query);
+        final var result = repository.save(new DbSavedSearch(userId, query, new Date()));
+        percolator.register(result.getId(), userId, filter);
+        return result;
+    }
+
+    List<DbSavedSearch> getAllByUser(UUID userId) {
+        return repository.findAllByUserIdOrderByDate(userId);
+    }
+
+    DbSavedSearch get(UUID id) {
+        return repository.findById(id)
+                .orElseThrow(() -> new DataRetrievalFailureException("Saved search with id: " + id + " not found"));
+    }
+
+    void delete(UUID id) {
+        repository.deleteById(id);
+        percolator.unregister(id);
+    }
+
+    public void deleteAllByUser(DbUser user) {
+        final var searches = repository.findAllByUserIdOrderByDate(user.getId());
+        repository.deleteInBatch(searches);
+        searches.forEach(search -> percolator.unregister(search.getId()));
+    }
+
+    /**
+     * Saved searches of the user are percolated in this application instance from now on.
+     */
+    SseEmitter subscribe(UUID userId) {
+        final var result = notifier.subscribe(userId);
+        percolator.registerAll(repository.findAllByUserIdOrderByDate(userId));
+        return result;
+    }
+}
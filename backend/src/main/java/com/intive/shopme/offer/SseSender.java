@@ -0,0 +1,143 @@
+package com.intive.shopme.offer;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes Server-Sent Events streams on a fixed number of threads, never in the thread publishing events, so there is
+ * no thread per connection.
+ * <p>
+ * Every stream is written by at most one thread at a time and flushes requested meanwhile are coalesced into the
+ * running write, so a client not reading its stream blocks only the thread writing to it, not other streams. Stream
+ * which write has been blocked for longer than the send timeout is dropped (and completed by its thread as soon as
+ * the write returns), so no more writes are scheduled for it.
+ */
+@Log4j2
+class SseSender {
+
+    /**
+     * Writes pending events to the stream.
+     */
+    interface Writer {
+
+        /**
+         * @return whether there are more events to be written
+         */
+        boolean write(SseEmitter emitter) throws IOException;
+    }
+
+    private final long sendTimeout;
+    private final Set<Stream> streams = ConcurrentHashMap.newKeySet();
+    private final ExecutorService executor;
+
+    SseSender(String name, int threads, long sendTimeout) {
+        this.sendTimeout = sendTimeout;
+        final var threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            final var result = new Thread(runnable, name + "-" + threadNumber.incrementAndGet());
+            result.setDaemon(true);
+            return result;
+        });
+    }
+
+    /**
+     * @param onClose called once the stream is closed by the client, timed out, failed or dropped
+     */
+    Stream open(SseEmitter emitter, Writer writer, Runnable onClose) {
+        final var result = new Stream(emitter, writer, onClose);
+        emitter.onCompletion(() -> close(result));
+        emitter.onTimeout(() -> close(result));
+        streams.add(result);
+        return result;
+    }
+
+    /**
+     * Schedules writing of pending events to the stream, unless it is being written already.
+     */
+    void flush(Stream stream) {
+        dropIfBlocked(stream, System.currentTimeMillis());
+        schedule(stream);
+    }
+
+    /**
+     * Blocked streams are looked for once, not for every flushed stream.
+     */
+    void flushAll() {
+        final var now = System.currentTimeMillis();
+        streams.forEach(stream -> dropIfBlocked(stream, now));
+        streams.forEach(this::schedule);
+    }
+
+    void shutdown() {
+        executor.shutdownNow();
+        streams.forEach(stream -> stream.emitter.complete());
+    }
+
+    private void schedule(Stream stream) {
+        if (!stream.dropped && stream.requests.getAndIncrement() == 0) {
+            executor.execute(() -> write(stream));
+        }
+    }
+
+    private void dropIfBlocked(Stream stream, long now) {
+        final var writingSince = stream.writingSince;
+        if (writingSince != 0 && now - writingSince > sendTimeout) {
+            log.debug("Server-Sent Events stream not read for {} ms is dropped", now - writingSince);
+            stream.dropped = true;
+            close(stream);
+        }
+    }
+
+    private void write(Stream stream) {
+        try {
+            int requests;
+            do {
+                requests = stream.requests.get();
+                var more = true;
+                while (more && !stream.dropped) {
+                    stream.writingSince = System.currentTimeMillis();
+                    more = stream.writer.write(stream.emitter);
+                    stream.writingSince = 0;
+                }
+            } while (stream.requests.addAndGet(-requests) != 0);
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Server-Sent Events stream is closed: {}", e.getMessage());
+            stream.writingSince = 0;
+            close(stream);
+            stream.emitter.completeWithError(e);
+            return;
+        }
+        if (stream.dropped) {
+            stream.emitter.complete();
+        }
+    }
+
+    private void close(Stream stream) {
+        if (streams.remove(stream)) {
+            stream.onClose.run();
+        }
+    }
+
+    static final class Stream {
+
+        private final SseEmitter emitter;
+        private final Writer writer;
+        private final Runnable onClose;
+        private final AtomicInteger requests = new AtomicInteger();
+        private volatile long writingSince;
+        private volatile boolean dropped;
+
+        private Stream(SseEmitter emitter, Writer writer, Runnable onClose) {
+            this.emitter = emitter;
+            this.writer = writer;
+            this.onClose = onClose;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.intive.shopme.offer;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Terms indexed by their n-grams (every substring of up to {@value #GRAM_LENGTH} characters -> terms having it), so
+ * terms containing a keyword are found without checking every term.
+ * <p>
+ * Not thread-safe, the owner guards it with its own lock.
+ */
+final class SubstringIndex {
+
+    private static final int GRAM_LENGTH = 3;
+
+    private final Map<String, Set<String>> termsByGram = new HashMap<>();
+
+    /**
+     * @param term term not indexed yet
+     */
+    void add(String term) {
+        grams(term).forEach(gram -> termsByGram.computeIfAbsent(gram, key -> new HashSet<>()).add(term));
+    }
+
+    void remove(String term) {
+        grams(term).forEach(gram -> {
+            final var terms = termsByGram.get(gram);
+            if (terms != null) {
+                terms.remove(term);
+                if (terms.isEmpty()) {
+                    termsByGram.remove(gram);
+                }
+            }
+        });
+    }
+
+    /**
+     * Keywords not longer than n-grams are looked up directly, longer ones are searched for only in terms having
+     * their least common n-gram.
+     *
+     * @return terms containing the keyword, not to be modified
+     */
+    Set<String> termsContaining(String keyword) {
+        if (keyword.length() <= GRAM_LENGTH) {
+            return termsByGram.getOrDefault(keyword, Collections.emptySet());
+        }
+
+        Set<String> candidates = null;
+        for (int i = 0; i + GRAM_LENGTH <= keyword.length(); i++) {
+            final var gramTerms = termsByGram.get(keyword.substring(i, i + GRAM_LENGTH));
+            if (gramTerms == null) {
+                return Collections.emptySet();
+            }
+            if (candidates == null || gramTerms.size() < candidates.size()) {
+                candidates = gramTerms;
+            }
+        }
+
+        final Set<String> result = new HashSet<>();
+        for (String term : candidates) {
+            if (term.contains(keyword)) {
+                result.add(term);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return all distinct substrings of the term with length from 1 to {@value #GRAM_LENGTH}
+     */
+    private static Set<String> grams(String term) {
+        final Set<String> result = new HashSet<>();
+        for (int start = 0; start < term.length(); start++) {
+            for (int end = start + 1; end <= Math.min(start + GRAM_LENGTH, term.length()); end++) {
+                result.add(term.substring(start, end));
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,17 @@
+package com.intive.shopme.registration;
+
+import lombok.Getter;
+
+@Getter
+public class PasswordHashingBusyException extends RuntimeException {
+
+    /**
+     * Seconds after which the request should be retried.
+     */
+    private final long retryAfter;
+
+    PasswordHashingBusyException(long retryAfter) {
+        super("Too many logins and registrations in progress, try again later");
+        this.retryAfter = retryAfter;
+    }
+}
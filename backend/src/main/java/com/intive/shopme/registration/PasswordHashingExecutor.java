@@ -0,0 +1,105 @@
+package com.intive.shopme.registration;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs password hashing and verification (intentionally slow and CPU bound) in a fixed number of threads with a
+ * bounded queue, so request threads stay free for other endpoints during a burst of logins or registrations. When
+ * the queue is full, {@link PasswordHashingBusyException} is thrown immediately instead of queueing more work.
+ * <p>
+ * Executor statistics are published as {@value #METRIC_NAME} executor metrics, rejected tasks are counted as
+ * {@value #REJECTED_METRIC_NAME}.
+ * <p>
+ * Work depending on the hashing result (e.g. saving the user) is continued in {@link #completionExecutor()}, so
+ * database calls never occupy hashing threads.
+ */
+@Component
+class PasswordHashingExecutor {
+
+    static final String METRIC_NAME = "password.hashing";
+    static final String REJECTED_METRIC_NAME = "password.hashing.rejected";
+
+    private final ThreadPoolExecutor pool;
+    private final ExecutorService executor;
+    private final ExecutorService completionPool;
+    private final long retryAfter;
+    private final Counter rejected;
+
+    PasswordHashingExecutor(@Value("${password.hashing.threads}") int threads,
+                            @Value("${password.hashing.queue-capacity}") int queueCapacity,
+                            @Value("${password.hashing.completion-threads}") int completionThreads,
+                            @Value("${password.hashing.retry-after}") long retryAfter,
+                            MeterRegistry meterRegistry) {
+        this.pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("password-hashing-"));
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, METRIC_NAME, Tags.empty());
+        this.completionPool = Executors.newFixedThreadPool(completionThreads,
+                new CustomizableThreadFactory("password-hashing-completion-"));
+        this.retryAfter = retryAfter;
+        this.rejected = meterRegistry.counter(REJECTED_METRIC_NAME);
+    }
+
+    /**
+     * @throws PasswordHashingBusyException when there are already too many tasks waiting
+     */
+    <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingBusyException(retryAfter);
+        }
+    }
+
+    /**
+     * @return executor for stages following hashing, to be passed to {@code thenApplyAsync} and alike
+     */
+    Executor completionExecutor() {
+        return completionPool;
+    }
+
+    /**
+     * Spring MVC passes exception of a returned future to exception handlers as it is, so the exception thrown by a
+     * stage (and wrapped in {@link CompletionException} by dependent stages) has to be unwrapped to be handled like
+     * thrown synchronously (e.g. bad credentials answered with 401, not 500).
+     *
+     * @return future completed with the result of the given one, or with the cause of its {@link CompletionException}
+     */
+    static <T> CompletableFuture<T> unwrapped(CompletableFuture<T> future) {
+        final var result = new CompletableFuture<T>();
+        future.whenComplete((value, exception) -> {
+            if (exception == null) {
+                result.complete(value);
+            } else if (exception instanceof CompletionException && exception.getCause() != null) {
+                result.completeExceptionally(exception.getCause());
+            } else {
+                result.completeExceptionally(exception);
+            }
+        });
+        return result;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdown();
+        completionPool.shutdown();
+    }
+}
@@ -0,0 +1,69 @@
+package com.intive.shopme.registration;
+
+import com.intive.shopme.config.scheduling.JobLease;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Deletes expired revoked tokens in background, in batches of limited size (each in a separate transaction), so
+ * neither requests nor other transactions wait for a large delete. In case of many application instances only the
+ * one holding {@value #JOB_NAME} {@link JobLease lease} does it.
+ * <p>
+ * Number of deleted tokens and duration of every purge are published as {@value #PURGED_METRIC_NAME} and
+ * {@value #DURATION_METRIC_NAME} metrics.
+ */
+@Log4j2
+@Component
+class RevokedTokenPurge {
+
+    static final String JOB_NAME = "revoked-tokens-purge";
+    static final String PURGED_METRIC_NAME = "tokens.revoked.purged";
+    static final String DURATION_METRIC_NAME = "tokens.revoked.purge";
+
+    private final RevokedTokenRepository repository;
+    private final JobLease jobLease;
+    private final long interval;
+    private final int batchSize;
+    private final Counter purged;
+    private final Timer duration;
+
+    RevokedTokenPurge(RevokedTokenRepository repository, JobLease jobLease,
+                      @Value("${jwt.revoked-tokens-purge-interval}") long interval,
+                      @Value("${jwt.revoked-tokens-purge-batch-size}") int batchSize,
+                      MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.jobLease = jobLease;
+        this.interval = interval;
+        this.batchSize = batchSize;
+        this.purged = meterRegistry.counter(PURGED_METRIC_NAME);
+        this.duration = meterRegistry.timer(DURATION_METRIC_NAME);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revoked-tokens-purge-interval}")
+    void purge() {
+        if (!jobLease.acquire(JOB_NAME, interval)) {
+            return;
+        }
+
+        final var total = duration.record(this::removeExpiredTokens);
+        if (total > 0) {
+            log.info("Removed {} expired revoked tokens", total);
+        }
+    }
+
+    int removeExpiredTokens() {
+        var total = 0;
+        int removed;
+        do {
+            removed = repository.removeExpiredTokens(batchSize);
+            purged.increment(removed);
+            total += removed;
+        } while (removed == batchSize);
+        return total;
+    }
+}
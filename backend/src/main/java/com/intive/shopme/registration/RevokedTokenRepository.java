@@ -4,6 +4,7 @@ import com.intive.shopme.model.db.DbRevokedToken;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -14,7 +15,8 @@ import java.util.UUID;
 @Repository
 interface RevokedTokenRepository extends JpaRepository<DbRevokedToken, UUID> {
 
-    DbRevokedToken findOneByUserIdAndExpirationDate(UUID userId, Date expirationDate);
+    List<DbRevokedToken> findAllByRevocationDateAfterAndExpirationDateAfter(Date revocationDate,
+                                                                            Date expirationDate);
 
     List<DbRevokedToken> findAll();
 
@@ -22,6 +24,7 @@ interface RevokedTokenRepository extends JpaRepository<DbRevokedToken, UUID> {
 
     @Transactional
     @Modifying
-    @Query(value = "DELETE FROM REVOKED_TOKEN WHERE EXPIRATION_DATE < CURRENT_TIMESTAMP", nativeQuery = true)
-    void removeExpiredTokens();
+    @Query(value = "DELETE FROM REVOKED_TOKEN WHERE ID IN (SELECT ID FROM REVOKED_TOKEN " +
+            "WHERE EXPIRATION_DATE < CURRENT_TIMESTAMP LIMIT :limit)", nativeQuery = true)
+    int removeExpiredTokens(@Param("limit") int limit);
 }
@@ -4,39 +4,111 @@ import com.intive.shopme.model.db.DbRevokedToken;
 import com.intive.shopme.model.rest.UserContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revoked tokens are checked in memory ({@link RevokedTokenSet}), loaded from database at startup. Tokens revoked by
+ * logout on this instance are kept in a small map once the logout commits, and folded into the set by the next
+ * refresh, so logouts never rebuild the whole set. Tokens revoked by other application instances are merged every
+ * {@code jwt.revoked-tokens-refresh-interval} milliseconds, expired ones are dropped at the same time (and removed
+ * from database by {@link RevokedTokenPurge}).
+ * <p>
+ * Refresh reads only tokens revoked since the previous one, minus {@code jwt.revoked-tokens-refresh-overlap}
+ * milliseconds, so tokens committed late or revoked by an instance with a slightly different clock are not missed.
+ * Tokens read again are not duplicated.
+ */
 @Service
 @Transactional
 public class RevokedTokenService {
 
     private final RevokedTokenRepository repository;
-
-    @Value("${jwt.minimum-revoked-tokens-remove-interval}")
-    private long revokedTokenInterval;
-    private static long nextTokenRemoval = 0L;
+    private final long refreshOverlap;
+    // user id -> expiration times of tokens revoked on this instance since the last refresh
+    private final Map<UUID, Set<Long>> recentlyRevoked = new ConcurrentHashMap<>();
+    private volatile RevokedTokenSet revokedTokens = RevokedTokenSet.EMPTY;
+    private Date revokedSince = new Date(0);
 
     @Autowired
-    public RevokedTokenService(RevokedTokenRepository repository) {
+    public RevokedTokenService(RevokedTokenRepository repository,
+                               @Value("${jwt.revoked-tokens-refresh-overlap}") long refreshOverlap) {
         this.repository = repository;
+        this.refreshOverlap = refreshOverlap;
     }
 
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${jwt.revoked-tokens-refresh-interval}",
+            initialDelayString = "${jwt.revoked-tokens-refresh-interval}")
+    synchronized void refresh() {
+        final var now = new Date();
+        final Map<UUID, Set<Long>> folded = new HashMap<>();
+        recentlyRevoked.forEach((userId, expirations) -> folded.put(userId, Set.copyOf(expirations)));
+
+        final List<DbRevokedToken> tokens = new ArrayList<>(
+                repository.findAllByRevocationDateAfterAndExpirationDateAfter(revokedSince, now));
+        folded.forEach((userId, expirations) -> expirations.forEach(expiration ->
+                tokens.add(new DbRevokedToken(userId, new Date(expiration)))));
+        revokedTokens = revokedTokens.merge(tokens, now.getTime());
+        revokedSince = new Date(now.getTime() - refreshOverlap);
+
+        folded.forEach((userId, expirations) -> recentlyRevoked.computeIfPresent(userId, (key, current) -> {
+            current.removeAll(expirations);
+            return current.isEmpty() ? null : current;
+        }));
+    }
+
+    /**
+     * The token is rejected by this instance once the logout commits (right away when it is saved outside of a
+     * transaction), so a rolled back logout does not revoke it.
+     */
     void logout(DbRevokedToken dbRevokedToken) {
-        removeExpiredTokens();
         repository.save(dbRevokedToken);
+        final var userId = dbRevokedToken.getUserId();
+        final var expiration = dbRevokedToken.getExpirationDate().getTime();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            revokeRecently(userId, expiration);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+            @Override
+            public void afterCommit() {
+                revokeRecently(userId, expiration);
+            }
+        });
     }
 
-    public boolean isRevoked(UserContext userContext) {
-        final var userId = userContext.getUserId();
-        final var expirationDate = userContext.getExpirationDate();
-        return repository.findOneByUserIdAndExpirationDate(userId, expirationDate) != null;
+    private void revokeRecently(UUID userId, long expiration) {
+        recentlyRevoked.compute(userId, (key, current) -> {
+            final Set<Long> result = current != null ? current : ConcurrentHashMap.newKeySet();
+            result.add(expiration);
+            return result;
+        });
     }
 
-    private void removeExpiredTokens() {
-        if (System.currentTimeMillis() > nextTokenRemoval) {
-            nextTokenRemoval = System.currentTimeMillis() + revokedTokenInterval;
-            repository.removeExpiredTokens();
+    public boolean isRevoked(UserContext userContext) {
+        final var userId = userContext.getUserId();
+        final var expiration = userContext.getExpirationDate().getTime();
+        if (revokedTokens.contains(userId, expiration)) {
+            return true;
+        }
+        if (recentlyRevoked.isEmpty()) {
+            return false;
         }
+        final var expirations = recentlyRevoked.get(userId);
+        return expirations != null && expirations.contains(expiration);
     }
 }
@@ -0,0 +1,183 @@
+package com.intive.shopme.registration;
+
+import com.intive.shopme.model.db.DbRevokedToken;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Immutable set of revoked tokens, identified by owner's id and expiration time, kept in a flat array of longs
+ * (open addressing with linear probing, three longs per slot) with a Bloom filter in front of it. Almost all requests
+ * are made with tokens which are not revoked, and for them the answer usually comes from a few bit tests.
+ * <p>
+ * Changes create a new set, so it can be read by many threads without any locking.
+ */
+final class RevokedTokenSet {
+
+    static final RevokedTokenSet EMPTY = new RevokedTokenSet(new long[0], 0);
+
+    private static final int SLOT_LENGTH = 3;
+    private static final int BLOOM_BITS_PER_TOKEN = 16;
+    private static final int BLOOM_HASHES = 6;
+    private static final long EMPTY_SLOT = 0L;
+
+    private final long[] slots;
+    private final int mask;
+    private final long[] bloom;
+    private final int bloomMask;
+    private final int size;
+
+    /**
+     * @param entries user id's most and least significant bits and expiration time of every token, may repeat
+     */
+    private RevokedTokenSet(long[] entries, int count) {
+        final var capacity = tableSizeFor(count * 2);
+        this.slots = new long[capacity * SLOT_LENGTH];
+        this.mask = capacity - 1;
+        final var bloomBits = Math.max(Long.SIZE, tableSizeFor(count * BLOOM_BITS_PER_TOKEN));
+        this.bloom = new long[bloomBits / Long.SIZE];
+        this.bloomMask = bloomBits - 1;
+
+        var inserted = 0;
+        for (int i = 0; i < count * SLOT_LENGTH; i += SLOT_LENGTH) {
+            if (insert(entries[i], entries[i + 1], entries[i + 2])) {
+                inserted++;
+            }
+        }
+        this.size = inserted;
+    }
+
+    boolean contains(UUID userId, long expiration) {
+        if (size == 0) {
+            return false;
+        }
+
+        final var msb = userId.getMostSignificantBits();
+        final var lsb = userId.getLeastSignificantBits();
+        final var hash = hash(msb, lsb, expiration);
+        if (!mightContain(hash)) {
+            return false;
+        }
+
+        for (int slot = (int) hash & mask; ; slot = (slot + 1) & mask) {
+            final var base = slot * SLOT_LENGTH;
+            if (slots[base + 2] == EMPTY_SLOT) {
+                return false;
+            }
+            if (slots[base] == msb && slots[base + 1] == lsb && slots[base + 2] == expiration) {
+                return true;
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    RevokedTokenSet with(UUID userId, long expiration) {
+        final var entries = new long[(size + 1) * SLOT_LENGTH];
+        final var count = copyNotExpired(entries, EMPTY_SLOT);
+        put(entries, count, userId, expiration);
+        return new RevokedTokenSet(entries, count + 1);
+    }
+
+    /**
+     * @return set of tokens from both this set and given ones, without tokens which expired at or before {@code now}
+     */
+    RevokedTokenSet merge(Collection<DbRevokedToken> tokens, long now) {
+        final var entries = new long[(size + tokens.size()) * SLOT_LENGTH];
+        var count = copyNotExpired(entries, now);
+        for (DbRevokedToken token : tokens) {
+            final var expiration = token.getExpirationDate().getTime();
+            if (expiration > now) {
+                put(entries, count++, token.getUserId(), expiration);
+            }
+        }
+        return new RevokedTokenSet(entries, count);
+    }
+
+    /**
+     * @return number of not expired tokens copied to the beginning of {@code target}
+     */
+    private int copyNotExpired(long[] target, long now) {
+        var result = 0;
+        for (int base = 0; base < slots.length; base += SLOT_LENGTH) {
+            final var expiration = slots[base + 2];
+            if (expiration != EMPTY_SLOT && expiration > now) {
+                System.arraycopy(slots, base, target, result * SLOT_LENGTH, SLOT_LENGTH);
+                result++;
+            }
+        }
+        return result;
+    }
+
+    private static void put(long[] entries, int index, UUID userId, long expiration) {
+        entries[index * SLOT_LENGTH] = userId.getMostSignificantBits();
+        entries[index * SLOT_LENGTH + 1] = userId.getLeastSignificantBits();
+        entries[index * SLOT_LENGTH + 2] = expiration;
+    }
+
+    private boolean insert(long msb, long lsb, long expiration) {
+        final var hash = hash(msb, lsb, expiration);
+        for (int slot = (int) hash & mask; ; slot = (slot + 1) & mask) {
+            final var base = slot * SLOT_LENGTH;
+            if (slots[base + 2] == EMPTY_SLOT) {
+                slots[base] = msb;
+                slots[base + 1] = lsb;
+                slots[base + 2] = expiration;
+                addToBloom(hash);
+                return true;
+            }
+            if (slots[base] == msb && slots[base + 1] == lsb && slots[base + 2] == expiration) {
+                return false;
+            }
+        }
+    }
+
+    private void addToBloom(long hash) {
+        final var step = bloomStep(hash);
+        for (int i = 0; i < BLOOM_HASHES; i++) {
+            final var bit = (int) (hash + i * step) & bloomMask;
+            bloom[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    private boolean mightContain(long hash) {
+        final var step = bloomStep(hash);
+        for (int i = 0; i < BLOOM_HASHES; i++) {
+            final var bit = (int) (hash + i * step) & bloomMask;
+            if ((bloom[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Bloom filter bits are chosen by double hashing: {@code hash + i * step}, with an odd step.
+     */
+    private static long bloomStep(long hash) {
+        return (hash >>> 32) | 1;
+    }
+
+    private static long hash(long msb, long lsb, long expiration) {
+        return mix(msb ^ Long.rotateLeft(lsb, 21) ^ Long.rotateLeft(expiration, 42));
+    }
+
+    /**
+     * MurmurHash3 64-bit finalizer.
+     */
+    private static long mix(long value) {
+        var result = value;
+        result ^= result >>> 33;
+        result *= 0xff51afd7ed558ccdL;
+        result ^= result >>> 33;
+        result *= 0xc4ceb9fe1a85ec53L;
+        result ^= result >>> 33;
+        return result;
+    }
+
+    private static int tableSizeFor(int size) {
+        return size <= 1 ? 1 : Integer.highestOneBit(size - 1) << 1;
+    }
+}
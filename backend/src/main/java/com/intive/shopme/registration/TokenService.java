@@ -1,5 +1,6 @@
 package com.intive.shopme.registration;
 
+import com.intive.shopme.config.security.CalibratedPasswordEncoder;
 import com.intive.shopme.model.db.DbUser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -7,11 +8,11 @@ import io.jsonwebtoken.impl.TextCodec;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.util.Date;
+import java.util.concurrent.CompletableFuture;
 
 import static com.intive.shopme.config.AppConfig.EMAIL_CLAIM_NAME;
 import static com.intive.shopme.config.AppConfig.SCOPES_CLAIM_NAME;
@@ -19,24 +20,52 @@ import static com.intive.shopme.config.AppConfig.SCOPES_CLAIM_NAME;
 @Service
 class TokenService {
 
-    private final PasswordEncoder passwordEncoder;
+    private static final String BAD_CREDENTIALS = "Incorrect email and/or password";
+
+    private final CalibratedPasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final UserService userService;
     private final long expirationTime;
     private final String secret;
 
     @Autowired
-    TokenService(PasswordEncoder passwordEncoder,
+    TokenService(CalibratedPasswordEncoder passwordEncoder, PasswordHashingExecutor passwordHashingExecutor,
+                 UserService userService,
                  @Value("${jwt.expiration-time}") long expirationTime,
                  @Value("${jwt.secret}") String secret) {
         this.expirationTime = expirationTime;
         this.passwordEncoder = passwordEncoder;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.userService = userService;
         this.secret = secret;
     }
 
-    String exchangePasswordForToken(final DbUser user, final String password) {
-        if (user == null || !passwordMatches(user, password)) {
-            throw new BadCredentialsException("Incorrect email and/or password");
+    /**
+     * Password is verified by {@link PasswordHashingExecutor}, the returned token is completed in its completion
+     * executor. Password hashed with other strength than the current one is hashed again, once it is known to be
+     * correct, and saved in the completion executor as well.
+     * <p>
+     * Wrong password completes the token with {@link BadCredentialsException} itself, not wrapped.
+     */
+    CompletableFuture<String> exchangePasswordForToken(final DbUser user, final String password) {
+        if (user == null) {
+            throw new BadCredentialsException(BAD_CREDENTIALS);
         }
 
+        return PasswordHashingExecutor.unwrapped(passwordHashingExecutor.submit(() -> verify(user, password))
+                .thenApplyAsync(hash -> {
+                    if (hash == null) {
+                        throw new BadCredentialsException(BAD_CREDENTIALS);
+                    }
+                    if (!hash.equals(user.getPassword())) {
+                        userService.updatePassword(user.getId(), hash);
+                        user.setPassword(hash);
+                    }
+                    return createToken(user);
+                }, passwordHashingExecutor.completionExecutor()));
+    }
+
+    private String createToken(final DbUser user) {
         return Jwts.builder()
                 .setSubject(user.getId().toString())
                 .claim(EMAIL_CLAIM_NAME, user.getEmail())
@@ -51,7 +80,15 @@ class TokenService {
         return new Date(Instant.now().plusMillis(expirationTime).toEpochMilli());
     }
 
-    private boolean passwordMatches(final DbUser user, final String password) {
-        return passwordEncoder.matches(password, user.getPassword());
+    /**
+     * @return hash to be stored for the password: the current one, or a new one when the current one has to be
+     * upgraded; {@code null} when the password does not match
+     */
+    private String verify(final DbUser user, final String password) {
+        if (!passwordEncoder.matches(password, user.getPassword())) {
+            return null;
+        }
+        return passwordEncoder.upgradeEncoding(user.getPassword()) ? passwordEncoder.encode(password)
+                : user.getPassword();
     }
 }
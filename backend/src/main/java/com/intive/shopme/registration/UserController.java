@@ -16,6 +16,7 @@ import com.intive.shopme.model.rest.UserCredentials;
 import com.intive.shopme.model.rest.UserWrite;
 import com.intive.shopme.model.rest.Voivodeship;
 import com.intive.shopme.offer.OfferService;
+import com.intive.shopme.offer.SavedSearchService;
 import com.intive.shopme.voivodeship.VoivodeshipValidator;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
@@ -42,6 +43,7 @@ import springfox.documentation.annotations.ApiIgnore;
 import javax.validation.Valid;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import static com.intive.shopme.config.ApiUrl.USERS;
@@ -50,6 +52,7 @@ import static com.intive.shopme.config.ApiUrl.USERS_LOGIN;
 import static com.intive.shopme.config.ApiUrl.USERS_LOGOUT;
 import static com.intive.shopme.config.AppConfig.CONSTRAINTS_JSON_KEY;
 import static com.intive.shopme.config.SwaggerApiInfoConfigurer.Operations.BAD_USER_PASS;
+import static com.intive.shopme.config.SwaggerApiInfoConfigurer.Operations.BUSY;
 import static com.intive.shopme.config.SwaggerApiInfoConfigurer.Operations.CREATED;
 import static com.intive.shopme.config.SwaggerApiInfoConfigurer.Operations.DELETED;
 import static com.intive.shopme.config.SwaggerApiInfoConfigurer.Operations.FORBIDDEN;
@@ -68,6 +71,7 @@ class UserController extends ConvertibleController<DbUser, UserView, UserWrite>
 
     private final UserService service;
     private final OfferService offerService;
+    private final SavedSearchService savedSearchService;
     private final ValidInvoiceIfInvoiceRequestedValidator invoiceRequestedValidator;
     private final VoivodeshipValidator voivodeshipValidator;
     private final EmailValidator emailValidator;
@@ -75,14 +79,17 @@ class UserController extends ConvertibleController<DbUser, UserView, UserWrite>
     private final PasswordEncoder passwordEncoder;
     private final TokenService tokensService;
     private final RevokedTokenService revokedTokenService;
+    private final PasswordHashingExecutor passwordHashingExecutor;
 
-    UserController(UserService service, OfferService offerService,
+    UserController(UserService service, OfferService offerService, SavedSearchService savedSearchService,
                    ValidInvoiceIfInvoiceRequestedValidator invoiceRequestedValidator,
                    VoivodeshipValidator voivodeshipValidator, EmailValidator emailValidator, PhoneValidator phoneValidator,
-                   PasswordEncoder passwordEncoder, TokenService tokensService, RevokedTokenService revokedTokenService) {
+                   PasswordEncoder passwordEncoder, TokenService tokensService, RevokedTokenService revokedTokenService,
+                   PasswordHashingExecutor passwordHashingExecutor) {
         super(DbUser.class, UserView.class, UserWrite.class);
         this.service = service;
         this.offerService = offerService;
+        this.savedSearchService = savedSearchService;
         this.invoiceRequestedValidator = invoiceRequestedValidator;
         this.voivodeshipValidator = voivodeshipValidator;
         this.emailValidator = emailValidator;
@@ -90,32 +97,38 @@ class UserController extends ConvertibleController<DbUser, UserView, UserWrite>
         this.passwordEncoder = passwordEncoder;
         this.tokensService = tokensService;
         this.revokedTokenService = revokedTokenService;
+        this.passwordHashingExecutor = passwordHashingExecutor;
     }
 
     @PostMapping
     @ResponseStatus(value = HttpStatus.CREATED)
     @ApiResponses(value = {
             @ApiResponse(code = 201, message = CREATED),
-            @ApiResponse(code = 422, message = VALIDATION_ERROR)
+            @ApiResponse(code = 422, message = VALIDATION_ERROR),
+            @ApiResponse(code = 503, message = BUSY)
     })
     @ApiOperation(value = "Saves new user", response = UserView.class)
-    ResponseEntity<?> add(@ApiParam(value = "New user's properties", required = true) @Valid @RequestBody UserWrite user,
-                          Errors errors) {
+    CompletableFuture<ResponseEntity<?>> add(@ApiParam(value = "New user's properties", required = true)
+                                             @Valid @RequestBody UserWrite user, Errors errors) {
         invoiceRequestedValidator.validate(user, errors);
         voivodeshipValidator.validate(user.getVoivodeship().getName(), errors);
         emailValidator.validate(user.getEmail(), errors);
         phoneValidator.validate(user.getPhoneNumber(), errors);
         if (errors.hasErrors()) {
-            return new ResponseEntity<>(Map.of(CONSTRAINTS_JSON_KEY, createErrorString(errors)), HttpStatus.UNPROCESSABLE_ENTITY);
+            return CompletableFuture.completedFuture(new ResponseEntity<>(
+                    Map.of(CONSTRAINTS_JSON_KEY, createErrorString(errors)), HttpStatus.UNPROCESSABLE_ENTITY));
         }
 
-        final var dbUser = convertToDbModel(user);
-        dbUser.setId(UUID.randomUUID());
-        dbUser.addRole(Role.USER);
-        if (service.count() == 0) {
-            dbUser.addRole(Role.ADMIN);
-        }
-        return new ResponseEntity<>(convertToView(service.createOrUpdate(dbUser)), HttpStatus.CREATED);
+        // password is hashed while converting, the user is saved off the hashing threads
+        return PasswordHashingExecutor.unwrapped(passwordHashingExecutor.submit(() -> convertToDbModel(user))
+                .<ResponseEntity<?>>thenApplyAsync(dbUser -> {
+                    dbUser.setId(UUID.randomUUID());
+                    dbUser.addRole(Role.USER);
+                    if (service.count() == 0) {
+                        dbUser.addRole(Role.ADMIN);
+                    }
+                    return new ResponseEntity<>(convertToView(service.createOrUpdate(dbUser)), HttpStatus.CREATED);
+                }, passwordHashingExecutor.completionExecutor()));
     }
 
     @GetMapping(value = "{id}")
@@ -125,7 +138,7 @@ class UserController extends ConvertibleController<DbUser, UserView, UserWrite>
     })
     @ApiOperation(value = "Returns user by id")
     UserView get(@ApiParam(value = "ID number of user to be retrieved", required = true) @PathVariable UUID id) {
-        return convertToView(service.get(id));
+        return convertToView(service.getProfile(id));
     }
 
     @DeleteMapping(value = "{id}")
@@ -147,6 +160,7 @@ class UserController extends ConvertibleController<DbUser, UserView, UserWrite>
 
         final var authenticatedUser = service.get(authenticatedUserId);
         offerService.deleteAllByUser(authenticatedUser);
+        savedSearchService.deleteAllByUser(authenticatedUser);
 
         service.delete(id);
         return new ResponseEntity<>(null, HttpStatus.OK);
@@ -163,25 +177,25 @@ class UserController extends ConvertibleController<DbUser, UserView, UserWrite>
     @PostMapping(value = USERS_LOGIN)
     @ApiOperation("Log in to api")
     @ApiResponses(value = {
-            @ApiResponse(code = 200, message = TOKEN_GENERATED),
-            @ApiResponse(code = 400, message = BAD_USER_PASS)
+            @ApiResponse(code = 200, message = TOKEN_GENERATED, response = Token.class),
+            @ApiResponse(code = 400, message = BAD_USER_PASS),
+            @ApiResponse(code = 503, message = BUSY)
     })
     @ResponseStatus(HttpStatus.OK)
-    Token login(@ApiParam(value = "User's login credentials", required = true)
-                @Valid @RequestBody UserCredentials credentials) {
+    CompletableFuture<Token> login(@ApiParam(value = "User's login credentials", required = true)
+                                   @Valid @RequestBody UserCredentials credentials) {
 
         final var user = service.findOneByEmail(credentials.getEmail().toLowerCase());
-        final String token = tokensService.exchangePasswordForToken(user, credentials.getPassword());
-
-        return Token.builder()
-                .userId(user.getId())
-                .email(user.getEmail())
-                .name(user.getName())
-                .surname(user.getSurname())
-                .roles(user.getRoles())
-                .expirationDate(tokensService.getExpirationDate())
-                .jwt(token)
-                .build();
+        return PasswordHashingExecutor.unwrapped(tokensService.exchangePasswordForToken(user, credentials.getPassword())
+                .thenApply(token -> Token.builder()
+                        .userId(user.getId())
+                        .email(user.getEmail())
+                        .name(user.getName())
+                        .surname(user.getSurname())
+                        .roles(user.getRoles())
+                        .expirationDate(tokensService.getExpirationDate())
+                        .jwt(token)
+                        .build()));
     }
 
     @PostMapping(value = USERS_LOGOUT)
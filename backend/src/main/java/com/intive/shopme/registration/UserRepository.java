@@ -2,6 +2,9 @@ package com.intive.shopme.registration;
 
 import com.intive.shopme.model.db.DbUser;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.UUID;
@@ -14,4 +17,8 @@ interface UserRepository extends JpaRepository<DbUser, UUID> {
     boolean existsById(UUID id);
 
     DbUser findOneByEmail(String email);
+
+    @Modifying
+    @Query("update DbUser u set u.password = :password where u.id = :id")
+    void updatePassword(@Param("id") UUID id, @Param("password") String password);
 }
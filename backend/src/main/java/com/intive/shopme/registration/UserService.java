@@ -1,6 +1,7 @@
 package com.intive.shopme.registration;
 
 import com.intive.shopme.model.db.DbUser;
+import com.intive.shopme.offer.OfferService;
 import org.springframework.dao.DataRetrievalFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -12,16 +13,20 @@ import java.util.UUID;
 public class UserService {
 
     private final UserRepository repository;
+    private final OfferService offerService;
 
-    UserService(UserRepository repository) {
+    UserService(UserRepository repository, OfferService offerService) {
         this.repository = repository;
+        this.offerService = offerService;
     }
 
-    DbUser createOrUpdate(DbUser dbUser) {
+    public DbUser createOrUpdate(DbUser dbUser) {
         if (!dbUser.getInvoiceRequest()) {
             dbUser.setInvoice(null);
         }
-        return repository.save(dbUser);
+        final var result = repository.save(dbUser);
+        offerService.ownerChanged(result);
+        return result;
     }
 
     public DbUser get(UUID id) {
@@ -30,6 +35,14 @@ public class UserService {
                 .orElseThrow(() -> new DataRetrievalFailureException("User with id: " + id + " not found"));
     }
 
+    /**
+     * Like {@link #get(UUID)}, but may be served by read replica, so it is not suitable for user being changed.
+     */
+    @Transactional(readOnly = true)
+    public DbUser getProfile(UUID id) {
+        return get(id);
+    }
+
     void delete(UUID id) {
         repository.deleteById(id);
     }
@@ -42,6 +55,13 @@ public class UserService {
         return repository.existsById(id);
     }
 
+    /**
+     * Replaces password hash, without any other change of the user.
+     */
+    public void updatePassword(UUID id, String password) {
+        repository.updatePassword(id, password);
+    }
+
     public DbUser findOneByEmail(String email) {
         return repository.findOneByEmail(email);
     }
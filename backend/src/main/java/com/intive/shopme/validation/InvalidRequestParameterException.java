@@ -0,0 +1,8 @@
+package com.intive.shopme.validation;
+
+public class InvalidRequestParameterException extends RuntimeException {
+
+    public InvalidRequestParameterException(String message) {
+        super(message);
+    }
+}
@@ -2,6 +2,7 @@ package com.intive.shopme.voivodeship;
 
 import com.intive.shopme.model.db.DbVoivodeship;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -14,6 +15,7 @@ class VoivodeshipService {
         this.repository = repository;
     }
 
+    @Transactional(readOnly = true)
     public List<DbVoivodeship> getAll() {
         return repository.findAll();
     }
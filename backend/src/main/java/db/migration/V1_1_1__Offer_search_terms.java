@@ -0,0 +1,118 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.jdbc.JdbcMigration;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Fills {@code OFFER.SEARCH_TERMS} of offers saved before the column was added.
+ * <p>
+ * Terms are computed by a copy of the text analysis of the time the column was added, not by the application's
+ * current one, so the migration gives the same result whenever it runs. Changed analysis needs a new migration
+ * recomputing the column. Offers are read and updated in chunks of {@value #CHUNK_SIZE}, in the order of ids.
+ */
+public class V1_1_1__Offer_search_terms implements JdbcMigration {
+
+    private static final int CHUNK_SIZE = 500;
+
+    private static final Pattern TERM_SEPARATOR = Pattern.compile("[^a-zA-Z0-9ąĄćĆęĘłŁńŃóÓśŚżŻźŹ]+");
+    private static final String DIACRITICS = "ąćęłńóśźż";
+    private static final String FOLDED_DIACRITICS = "acelnoszz";
+    private static final Set<String> STOPWORDS = Set.of("a", "aby", "albo", "ale", "ani", "bez", "bo", "by", "byc",
+            "czy", "dla", "do", "i", "ich", "jak", "jest", "jego", "jej", "juz", "lub", "ma", "mi", "na", "nad", "nie",
+            "o", "od", "oraz", "po", "pod", "przez", "przy", "sa", "sie", "ta", "tak", "te", "ten", "to", "tu", "w",
+            "we", "z", "za", "ze");
+    private static final List<String> SUFFIXES = List.of("owania", "owanie", "owaniu", "owac", "ania", "anie",
+            "aniu", "enia", "enie", "eniu", "ami", "ach", "ego", "emu", "owi", "ych", "ich", "ymi", "imi", "iem", "cie",
+            "ow", "om", "ie", "a", "e", "i", "o", "u", "y");
+    private static final int MIN_STEM_LENGTH = 3;
+
+    @Override
+    public void migrate(Connection connection) throws Exception {
+        try (PreparedStatement first = connection.prepareStatement("select ID, TITLE, BASE_DESCRIPTION, " +
+                "EXTENDED_DESCRIPTION, EXTRA_DESCRIPTION from OFFER order by ID limit " + CHUNK_SIZE);
+             PreparedStatement next = connection.prepareStatement("select ID, TITLE, BASE_DESCRIPTION, " +
+                     "EXTENDED_DESCRIPTION, EXTRA_DESCRIPTION from OFFER where ID > ? order by ID limit " + CHUNK_SIZE);
+             PreparedStatement update = connection.prepareStatement("update OFFER set SEARCH_TERMS = ? where ID = ?")) {
+            var lastId = migrateChunk(first, update);
+            while (lastId != null) {
+                next.setObject(1, lastId);
+                lastId = migrateChunk(next, update);
+            }
+        }
+    }
+
+    /**
+     * @return id of the last offer of a full chunk, {@code null} when there are no more offers
+     */
+    private static UUID migrateChunk(PreparedStatement select, PreparedStatement update) throws Exception {
+        UUID lastId = null;
+        var count = 0;
+        try (var offers = select.executeQuery()) {
+            while (offers.next()) {
+                lastId = offers.getObject("ID", UUID.class);
+                update.setString(1, searchTerms(offers.getString("TITLE"), offers.getString("BASE_DESCRIPTION"),
+                        offers.getString("EXTENDED_DESCRIPTION"), offers.getString("EXTRA_DESCRIPTION")));
+                update.setObject(2, lastId);
+                update.addBatch();
+                count++;
+            }
+        }
+        update.executeBatch();
+        return count == CHUNK_SIZE ? lastId : null;
+    }
+
+    private static String searchTerms(String... texts) {
+        final Set<String> terms = new LinkedHashSet<>();
+        for (String text : texts) {
+            for (String term : tokenize(text)) {
+                final var folded = fold(term);
+                if (!STOPWORDS.contains(folded)) {
+                    terms.add(stem(folded));
+                }
+            }
+        }
+        return " " + String.join(" ", terms) + " ";
+    }
+
+    private static List<String> tokenize(String text) {
+        final List<String> result = new ArrayList<>();
+        if (text == null) {
+            return result;
+        }
+
+        for (String term : TERM_SEPARATOR.split(text.toLowerCase())) {
+            if (!term.isEmpty()) {
+                result.add(term);
+            }
+        }
+        return result;
+    }
+
+    private static String fold(String term) {
+        final var result = term.toCharArray();
+        for (int i = 0; i < result.length; i++) {
+            final var diacritic = DIACRITICS.indexOf(result[i]);
+            if (diacritic >= 0) {
+                result[i] = FOLDED_DIACRITICS.charAt(diacritic);
+            }
+        }
+        return new String(result);
+    }
+
+    private static String stem(String term) {
+        for (String suffix : SUFFIXES) {
+            if (term.endsWith(suffix) && term.length() - suffix.length() >= MIN_STEM_LENGTH) {
+                return term.substring(0, term.length() - suffix.length());
+            }
+        }
+        return term;
+    }
+}
@@ -0,0 +1 @@
+alter table OFFER add column SEARCH_TERMS VARCHAR(2048);
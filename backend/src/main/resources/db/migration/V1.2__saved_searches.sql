@@ -0,0 +1,9 @@
+create table SAVED_SEARCH
+(
+	ID UUID not null primary key,
+	USER_ID UUID not null constraint FK_SAVED_SEARCH_USER references USERS,
+	QUERY VARCHAR(2000) not null,
+	DATE TIMESTAMP not null
+);
+
+create index IDX_SAVED_SEARCH_USER on SAVED_SEARCH (USER_ID);
@@ -0,0 +1,24 @@
+create table OFFER_CHANGE
+(
+	SEQ BIGINT not null primary key,
+	OFFER_ID UUID not null,
+	TYPE VARCHAR(10) not null,
+	DATE TIMESTAMP not null
+);
+
+-- Sequence numbers of changes are taken from the counter just before commit, its row stays locked until then
+create table OFFER_CHANGE_COUNTER
+(
+	LAST_SEQ BIGINT not null
+);
+
+-- Offers existing before the change log are logged as created, so all of them are returned since the first change
+create sequence OFFER_CHANGE_BACKFILL_SEQ;
+
+insert into OFFER_CHANGE (SEQ, OFFER_ID, TYPE, DATE)
+select nextval('OFFER_CHANGE_BACKFILL_SEQ'), O.ID, 'CREATED', O.DATE
+from (select ID, DATE from OFFER order by DATE) O;
+
+drop sequence OFFER_CHANGE_BACKFILL_SEQ;
+
+insert into OFFER_CHANGE_COUNTER (LAST_SEQ) select coalesce(max(SEQ), 0) from OFFER_CHANGE;
@@ -0,0 +1,35 @@
+create table OFFER_READ
+(
+	ID UUID not null primary key,
+	DATE TIMESTAMP not null,
+	TITLE VARCHAR(30) not null,
+	CATEGORY VARCHAR(255) not null,
+	BASE_DESCRIPTION VARCHAR(500) not null,
+	BASE_PRICE double precision not null,
+	EXTENDED_DESCRIPTION VARCHAR(500),
+	EXTENDED_PRICE double precision,
+	EXTRA_DESCRIPTION VARCHAR(500),
+	EXTRA_PRICE double precision,
+	USER_ID UUID not null,
+	NAME VARCHAR(255) not null,
+	SURNAME VARCHAR(255) not null,
+	EMAIL VARCHAR(255) not null,
+	PHONE_NUMBER VARCHAR(255) not null,
+	ADDITIONAL_INFO VARCHAR(800),
+	VOIVODESHIP VARCHAR(255) not null,
+	CITY VARCHAR(50) not null,
+	SEARCH_TERMS VARCHAR(2048)
+);
+
+create index IDX_OFFER_READ_DATE on OFFER_READ (DATE);
+create index IDX_OFFER_READ_USER on OFFER_READ (USER_ID);
+create index IDX_OFFER_READ_CATEGORY_DATE on OFFER_READ (CATEGORY, DATE);
+create index IDX_OFFER_READ_VOIVODESHIP_DATE on OFFER_READ (VOIVODESHIP, DATE);
+
+insert into OFFER_READ (ID, DATE, TITLE, CATEGORY, BASE_DESCRIPTION, BASE_PRICE, EXTENDED_DESCRIPTION, EXTENDED_PRICE,
+	EXTRA_DESCRIPTION, EXTRA_PRICE, USER_ID, NAME, SURNAME, EMAIL, PHONE_NUMBER, ADDITIONAL_INFO, VOIVODESHIP, CITY,
+	SEARCH_TERMS)
+select O.ID, O.DATE, O.TITLE, O.CATEGORY_NAME, O.BASE_DESCRIPTION, O.BASE_PRICE, O.EXTENDED_DESCRIPTION,
+	O.EXTENDED_PRICE, O.EXTRA_DESCRIPTION, O.EXTRA_PRICE, U.ID, U.NAME, U.SURNAME, U.EMAIL, U.PHONE_NUMBER,
+	U.ADDITIONAL_INFO, O.VOIVODESHIP_NAME, O.CITY, O.SEARCH_TERMS
+from OFFER O join USERS U on U.ID = O.USER_ID;
@@ -0,0 +1,7 @@
+create table REPLICA_HEARTBEAT
+(
+	ID INTEGER not null primary key,
+	DATE TIMESTAMP not null
+);
+
+insert into REPLICA_HEARTBEAT (ID, DATE) values (1, CURRENT_TIMESTAMP);
@@ -0,0 +1,10 @@
+create table JOB_LEASE
+(
+	NAME VARCHAR(100) not null primary key,
+	OWNER VARCHAR(100),
+	EXPIRES_AT TIMESTAMP not null
+);
+
+insert into JOB_LEASE (NAME, OWNER, EXPIRES_AT) values ('revoked-tokens-purge', null, CURRENT_TIMESTAMP);
+
+create index IDX_REVOKED_TOKEN_EXPIRATION_DATE on REVOKED_TOKEN (EXPIRATION_DATE);
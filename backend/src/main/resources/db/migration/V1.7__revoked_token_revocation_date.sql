@@ -0,0 +1,4 @@
+-- Tokens revoked before the column was added are read by the first refresh anyway, as it reads all of them
+alter table REVOKED_TOKEN add column REVOCATION_DATE TIMESTAMP default CURRENT_TIMESTAMP not null;
+
+create index IDX_REVOKED_TOKEN_REVOCATION_DATE on REVOKED_TOKEN (REVOCATION_DATE);
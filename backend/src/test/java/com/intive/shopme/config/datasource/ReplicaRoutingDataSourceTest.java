@@ -0,0 +1,94 @@
+package com.intive.shopme.config.datasource;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:replica-routing-primary;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "replica.datasource.url=jdbc:h2:mem:replica-routing-replica;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "replica.datasource.username=sa",
+        "replica.datasource.max-lag=5000",
+        "replica.datasource.lag-check-interval=3600000"
+})
+class ReplicaRoutingDataSourceTest {
+
+    private static final String REPLICA_ONLY_CATEGORY = "replica";
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void createReplicaOnlyCategory() {
+        final var flyway = new Flyway();
+        flyway.setDataSource(replicaDataSource);
+        flyway.migrate();
+
+        replica = new JdbcTemplate(replicaDataSource);
+        replica.update("merge into CATEGORY key (NAME) values (?)", REPLICA_ONLY_CATEGORY);
+    }
+
+    @Test
+    void read_only_transaction_should_use_replica_when_it_is_up_to_date() {
+        replicateHeartbeat(0);
+
+        assertThat(findCategories(true)).contains(REPLICA_ONLY_CATEGORY);
+    }
+
+    @Test
+    void read_write_transaction_should_use_primary() {
+        replicateHeartbeat(0);
+
+        assertThat(findCategories(false)).doesNotContain(REPLICA_ONLY_CATEGORY);
+    }
+
+    @Test
+    void read_only_transaction_should_use_primary_when_replica_is_lagging() {
+        replicateHeartbeat(60000);
+
+        assertThat(replicaLagMonitor.isUpToDate()).isFalse();
+        assertThat(findCategories(true)).doesNotContain(REPLICA_ONLY_CATEGORY);
+    }
+
+    private void replicateHeartbeat(long lag) {
+        replica.update("update REPLICA_HEARTBEAT set DATE = ?", new Timestamp(System.currentTimeMillis() - lag));
+        replicaLagMonitor.check();
+    }
+
+    private List<String> findCategories(boolean readOnly) {
+        final var transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> entityManager
+                .createQuery("select c.name from DbCategory c", String.class)
+                .getResultList());
+    }
+}
@@ -0,0 +1,38 @@
+package com.intive.shopme.config.scheduling;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:job-lease;MODE=PostgreSQL;DB_CLOSE_DELAY=-1")
+class JobLeaseTest {
+
+    private static final String JOB = "test-job";
+    private static final long HOUR = 3600000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void acquire_should_be_refused_to_other_instance_until_lease_expires() {
+        jdbcTemplate.update("merge into JOB_LEASE key (NAME) values (?, null, CURRENT_TIMESTAMP)", JOB);
+        final var first = new JobLease(jdbcTemplate);
+        final var second = new JobLease(jdbcTemplate);
+
+        assertThat(first.acquire(JOB, HOUR)).isTrue();
+        assertThat(first.acquire(JOB, 0)).isTrue();
+        assertThat(second.acquire(JOB, HOUR)).isTrue();
+        assertThat(first.acquire(JOB, HOUR)).isFalse();
+    }
+
+    @Test
+    void acquire_should_be_refused_for_not_registered_job() {
+        assertThat(new JobLease(jdbcTemplate).acquire("unknown", HOUR)).isFalse();
+    }
+}
@@ -0,0 +1,69 @@
+package com.intive.shopme.config.security;
+
+import com.intive.shopme.model.rest.Role;
+import com.intive.shopme.model.rest.UserContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class VerifiedTokenCacheTest {
+
+    private static final String TOKEN = "header.payload.signature";
+    private static final long HOUR = 3600000;
+
+    private final VerifiedTokenCache cache = new VerifiedTokenCache(100, new SimpleMeterRegistry());
+    private final AtomicInteger verifications = new AtomicInteger();
+
+    @Test
+    void get_should_verify_token_once() {
+        final var context = createContext(System.currentTimeMillis() + HOUR);
+
+        final var first = cache.get(TOKEN, countingVerify(token -> context));
+        final var second = cache.get(TOKEN, countingVerify(token -> context));
+
+        assertThat(first).isSameAs(context);
+        assertThat(second).isSameAs(context);
+        assertThat(verifications).hasValue(1);
+    }
+
+    @Test
+    void get_should_verify_again_token_which_expired() {
+        final var context = createContext(System.currentTimeMillis() - 1);
+
+        cache.get(TOKEN, countingVerify(token -> context));
+        cache.get(TOKEN, countingVerify(token -> context));
+
+        assertThat(verifications).hasValue(2);
+    }
+
+    @Test
+    void get_should_not_cache_invalid_token() {
+        final Function<String, UserContext> invalid = token -> {
+            throw new JwtAuthenticationException("Invalid token signature");
+        };
+        final var context = createContext(System.currentTimeMillis() + HOUR);
+
+        assertThatThrownBy(() -> cache.get(TOKEN, invalid)).isInstanceOf(JwtAuthenticationException.class);
+        assertThat(cache.get(TOKEN, countingVerify(token -> context))).isSameAs(context);
+        assertThat(verifications).hasValue(1);
+    }
+
+    private Function<String, UserContext> countingVerify(Function<String, UserContext> verify) {
+        return token -> {
+            verifications.incrementAndGet();
+            return verify.apply(token);
+        };
+    }
+
+    private static UserContext createContext(long expiration) {
+        return new UserContext(UUID.randomUUID(), "foo@bar.baz", Set.of(Role.USER), new Date(expiration));
+    }
+}
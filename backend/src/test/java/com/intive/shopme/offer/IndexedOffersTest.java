@@ -0,0 +1,60 @@
+package com.intive.shopme.offer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IndexedOffersTest {
+
+    private static final UUID ID = UUID.randomUUID();
+
+    private final IndexedOffers offers = new IndexedOffers(null, null);
+    private final List<String> notifications = new ArrayList<>();
+
+    @Test
+    void apply_should_ignore_change_older_than_applied_one() {
+        apply(createOffer("foo"), 1);
+        apply(createOffer("baz"), 3);
+        apply(createOffer("bar"), 2);
+
+        assertThat(offers.get(ID).getTitle()).isEqualTo("baz");
+        assertThat(notifications).containsExactly("null -> foo", "foo -> baz");
+    }
+
+    @Test
+    void apply_should_not_recreate_offer_deleted_by_later_change() {
+        apply(createOffer("foo"), 1);
+        apply(null, 3);
+        apply(createOffer("bar"), 2);
+
+        assertThat(offers.get(ID)).isNull();
+        assertThat(notifications).containsExactly("null -> foo", "foo -> null");
+    }
+
+    @Test
+    void forgetDeletedBefore_should_keep_versions_of_offers_deleted_later() {
+        apply(null, 3);
+        offers.forgetDeletedBefore(3);
+        apply(createOffer("foo"), 2);
+
+        assertThat(offers.get(ID)).isNull();
+    }
+
+    private void apply(IndexedOffer offer, long seq) {
+        offers.apply(ID, offer, seq, (previous, current) -> notifications.add(title(previous) + " -> " +
+                title(current)));
+    }
+
+    private static String title(IndexedOffer offer) {
+        return offer != null ? offer.getTitle() : null;
+    }
+
+    private static IndexedOffer createOffer(String title) {
+        return new IndexedOffer(ID, new Date(), title, 1.0, "others", "Lodz", "foo", UUID.randomUUID(), "", "");
+    }
+}
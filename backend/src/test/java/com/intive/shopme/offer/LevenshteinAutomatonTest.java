@@ -0,0 +1,34 @@
+package com.intive.shopme.offer;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LevenshteinAutomatonTest {
+
+    private final LevenshteinAutomaton automaton = new LevenshteinAutomaton("odsniezanie", 2);
+
+    @Test
+    void accepts_should_accept_words_within_edit_distance() {
+        assertThat(automaton.accepts("odsniezanie")).isTrue();
+        assertThat(automaton.accepts("odsnierzanie")).isTrue();
+        assertThat(automaton.accepts("odnieanie")).isTrue();
+    }
+
+    @Test
+    void accepts_should_reject_words_beyond_edit_distance() {
+        assertThat(automaton.accepts("odsnierzania2")).isFalse();
+        assertThat(automaton.accepts("niezanie")).isFalse();
+    }
+
+    @Test
+    void prefix_tree_should_return_only_keys_accepted_by_automaton() {
+        final var tree = new PrefixTree();
+        tree.add("odsniezanie");
+        tree.add("odsnierzanie");
+        tree.add("odkurzanie");
+        tree.add("ogrod");
+
+        assertThat(tree.match(automaton)).containsExactlyInAnyOrder("odsniezanie", "odsnierzanie");
+    }
+}
@@ -0,0 +1,30 @@
+package com.intive.shopme.offer;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OfferAnalyzerTest {
+
+    @Test
+    void analyze_should_give_same_terms_for_different_word_forms() {
+        assertThat(OfferAnalyzer.analyze("Odśnieżanie ogrodów"))
+                .isEqualTo(OfferAnalyzer.analyze("odsniezania ogrody"));
+    }
+
+    @Test
+    void analyze_should_drop_stopwords() {
+        assertThat(OfferAnalyzer.analyze("Lekcje gry na pianinie i gitarze")).containsExactly("lekcj", "gry",
+                "pianin", "gitarz");
+    }
+
+    @Test
+    void searchTerms_should_separate_distinct_terms_of_all_texts_with_spaces() {
+        assertThat(OfferAnalyzer.searchTerms("Ogród", "Projekt ogrodu", null)).isEqualTo(" ogrod projekt ");
+    }
+
+    @Test
+    void keywords_should_skip_unacceptable_characters_and_too_short_keywords() {
+        assertThat(OfferAnalyzer.keywords("Lekcje-piano  z Ogrodem!")).containsExactly("lekcjepiano", "ogrodem");
+    }
+}
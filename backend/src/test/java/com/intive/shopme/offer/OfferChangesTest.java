@@ -0,0 +1,152 @@
+package com.intive.shopme.offer;
+
+import com.intive.shopme.model.db.DbOfferRead;
+import com.intive.shopme.model.rest.OfferView;
+import com.intive.shopme.registration.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OfferChangesTest extends OfferDatabaseTest {
+
+    @Autowired
+    private OfferService service;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private OfferRepository repository;
+
+    @Autowired
+    private OfferReadRepository readRepository;
+
+    @Autowired
+    private IndexedOffers indexedOffers;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void getChanges_should_return_current_state_of_offers_changed_since_given_change() {
+        final var user = saveUser(createUser());
+        final var since = changeLog.lastSeq();
+        final var updated = service.createOrUpdate(createOffer(user, "foo"));
+        final var deleted = service.createOrUpdate(createOffer(user, "bar"));
+        updated.setTitle("baz");
+        service.createOrUpdate(updated);
+        service.delete(deleted.getId());
+
+        final var changes = service.getChanges(since, 10);
+
+        assertThat(changes.getOffers()).extracting(OfferView::getTitle).containsExactly("baz");
+        assertThat(changes.getDeleted()).containsExactly(deleted.getId());
+        assertThat(changes.getNext()).isEqualTo(since + 4);
+        assertThat(changes.isHasMore()).isFalse();
+    }
+
+    @Test
+    void getChanges_should_continue_from_next_change_when_limit_is_exceeded() {
+        final var user = saveUser(createUser());
+        final var since = changeLog.lastSeq();
+        final var first = service.createOrUpdate(createOffer(user, "foo"));
+        final var second = service.createOrUpdate(createOffer(user, "bar"));
+
+        final var firstChanges = service.getChanges(since, 1);
+        final var secondChanges = service.getChanges(firstChanges.getNext(), 1);
+
+        assertThat(firstChanges.getOffers()).extracting(OfferView::getId).containsExactly(first.getId());
+        assertThat(firstChanges.isHasMore()).isTrue();
+        assertThat(secondChanges.getOffers()).extracting(OfferView::getId).containsExactly(second.getId());
+        assertThat(secondChanges.isHasMore()).isFalse();
+    }
+
+    @Test
+    void getChanges_should_number_changes_in_commit_order() {
+        final var user = saveUser(createUser());
+        final var since = changeLog.lastSeq();
+
+        final var committedLater = new TransactionTemplate(transactionManager).execute(status -> {
+            final var result = service.createOrUpdate(createOffer(user, "foo"));
+            CompletableFuture.runAsync(() -> service.createOrUpdate(createOffer(user, "bar"))).join();
+            assertThat(service.getChanges(since, 10).getOffers()).extracting(OfferView::getTitle)
+                    .containsExactly("bar");
+            return result;
+        });
+
+        final var changes = service.getChanges(since, 10);
+        assertThat(changes.getOffers()).extracting(OfferView::getTitle).containsExactly("bar", "foo");
+        assertThat(changes.getOffers().get(1).getId()).isEqualTo(committedLater.getId());
+        assertThat(changes.getNext()).isEqualTo(since + 2);
+    }
+
+    @Test
+    void pollChanges_should_apply_offers_changed_by_other_instance() {
+        final var user = saveUser(createUser());
+        final var offer = createOffer(user, "foo");
+        final var removed = service.createOrUpdate(createOffer(user, "bar"));
+
+        new TransactionTemplate(transactionManager).execute(status -> {
+            readRepository.save(DbOfferRead.of(repository.save(offer)));
+            readRepository.deleteById(removed.getId());
+            repository.deleteById(removed.getId());
+            jdbcTemplate.update("update OFFER_CHANGE_COUNTER set LAST_SEQ = LAST_SEQ + 2");
+            final long seq = jdbcTemplate.queryForObject("select LAST_SEQ from OFFER_CHANGE_COUNTER", Long.class);
+            jdbcTemplate.update("insert into OFFER_CHANGE (SEQ, OFFER_ID, TYPE, DATE) values (?, ?, 'CREATED', ?)",
+                    seq - 1, offer.getId(), new Date());
+            jdbcTemplate.update("insert into OFFER_CHANGE (SEQ, OFFER_ID, TYPE, DATE) values (?, ?, 'DELETED', ?)",
+                    seq, removed.getId(), new Date());
+            return null;
+        });
+        assertThat(indexedOffers.get(offer.getId())).isNull();
+
+        service.pollChanges();
+
+        assertThat(indexedOffers.get(offer.getId()).getTitle()).isEqualTo("foo");
+        assertThat(indexedOffers.get(removed.getId())).isNull();
+    }
+
+    @Test
+    void createOrUpdate_should_log_update_of_offer_not_yet_indexed_by_this_instance() {
+        final var user = saveUser(createUser());
+        final var offer = createOffer(user, "foo");
+        new TransactionTemplate(transactionManager).execute(status ->
+                readRepository.save(DbOfferRead.of(repository.save(offer))));
+        final var since = changeLog.lastSeq();
+
+        service.createOrUpdate(createOffer(user, "bar"));
+        offer.setTitle("baz");
+        service.createOrUpdate(offer);
+
+        assertThat(jdbcTemplate.queryForList("select TYPE from OFFER_CHANGE where SEQ > ? order by SEQ",
+                String.class, since)).containsExactly("CREATED", "UPDATED");
+    }
+
+    @Test
+    void ownerChanged_should_log_offers_of_owner_only_when_contact_details_change() {
+        final var user = saveUser(createUser());
+        final var offer = service.createOrUpdate(createOffer(user, "foo"));
+        final var since = changeLog.lastSeq();
+
+        userService.createOrUpdate(user);
+
+        assertThat(service.getChanges(since, 10).getNext()).isEqualTo(since);
+
+        user.setPhoneNumber("987654321");
+        userService.createOrUpdate(user);
+
+        final var changes = service.getChanges(since, 10);
+        assertThat(changes.getOffers()).extracting(OfferView::getId).containsExactly(offer.getId());
+        assertThat(changes.getOffers().get(0).getPhoneNumber()).isEqualTo("987654321");
+    }
+}
@@ -34,8 +34,8 @@ class OfferControllerTest {
     private static final DbUser DB_USER = new DbUser(NAME, "", EMAIL, "", "", "",
             null, DB_VOIVODESHIP,  true, null, ADDITIONAL_INFO, null);
 
-    private final OfferController controller = new OfferController(null, null, null,
-            null);
+    private final OfferController controller = new OfferController(null, null, null, null, null,
+            null, null, null, null);
 
     @Test
     void convertToView_should_map_basic_values_successfully() {
@@ -0,0 +1,39 @@
+package com.intive.shopme.offer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OfferCountCacheTest {
+
+    private static final Object GARDEN = OfferFilter.compile(List.of(OfferCriterion.category("garden"))).key();
+    private static final Object TRANSPORT = OfferFilter.compile(List.of(OfferCriterion.category("transport"))).key();
+
+    private final OfferCountCache cache = new OfferCountCache(60000, 1000);
+    private final AtomicInteger counts = new AtomicInteger();
+
+    @Test
+    void get_should_count_once_per_filter() {
+        assertThat(cache.get(GARDEN, this::count)).isEqualTo(1);
+        assertThat(cache.get(GARDEN, this::count)).isEqualTo(1);
+        assertThat(cache.get(TRANSPORT, this::count)).isEqualTo(2);
+
+        assertThat(counts.get()).isEqualTo(2);
+    }
+
+    @Test
+    void offer_change_should_invalidate_counts() {
+        cache.get(GARDEN, this::count);
+
+        cache.offerChanged(null, null);
+
+        assertThat(cache.get(GARDEN, this::count)).isEqualTo(2);
+    }
+
+    private long count() {
+        return counts.incrementAndGet();
+    }
+}
@@ -0,0 +1,83 @@
+package com.intive.shopme.offer;
+
+import com.intive.shopme.model.rest.OfferView;
+import com.intive.shopme.validation.InvalidRequestParameterException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OfferCursorTest {
+
+    private static final UUID ID = UUID.randomUUID();
+    private static final Date DATE = new Date(1528000000123L);
+    private static final double BASE_PRICE = 12.34;
+    private static final String TITLE = "foo|bar";
+
+    @ParameterizedTest
+    @ValueSource(strings = {"date", "basePrice", "title"})
+    void decode_should_return_encoded_cursor(String sort) {
+        final var cursor = OfferCursor.after(createOffer(), sort, Sort.Direction.DESC);
+
+        assertThat(OfferCursor.decode(cursor.encode(), sort, Sort.Direction.DESC)).isEqualTo(cursor);
+    }
+
+    @Test
+    void after_should_take_value_of_sort_property() {
+        assertThat(OfferCursor.after(createOffer(), "date", Sort.Direction.ASC).getValue()).isEqualTo(DATE);
+        assertThat(OfferCursor.after(createOffer(), "basePrice", Sort.Direction.ASC).getValue()).isEqualTo(BASE_PRICE);
+        assertThat(OfferCursor.after(createOffer(), "title", Sort.Direction.ASC).getValue()).isEqualTo(TITLE);
+    }
+
+    @Test
+    void decode_should_accept_sort_property_in_any_case() {
+        final var cursor = OfferCursor.after(createOffer(), "BasePrice", Sort.Direction.ASC);
+
+        assertThat(cursor.getSort()).isEqualTo("basePrice");
+        assertThat(OfferCursor.decode(cursor.encode(), "BASEPRICE", Sort.Direction.ASC).getValue())
+                .isEqualTo(BASE_PRICE);
+    }
+
+    @Test
+    void decode_should_reject_cursor_of_other_sort_property_or_order() {
+        final var encoded = OfferCursor.after(createOffer(), "date", Sort.Direction.DESC).encode();
+
+        assertThrows(InvalidRequestParameterException.class,
+                () -> OfferCursor.decode(encoded, "title", Sort.Direction.DESC));
+        assertThrows(InvalidRequestParameterException.class,
+                () -> OfferCursor.decode(encoded, "date", Sort.Direction.ASC));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"not base64!", "Zm9v", ""})
+    void decode_should_reject_malformed_cursor(String encoded) {
+        assertThrows(InvalidRequestParameterException.class,
+                () -> OfferCursor.decode(encoded, "date", Sort.Direction.DESC));
+    }
+
+    @Test
+    void decode_should_reject_cursor_with_malformed_value() {
+        final var plain = "date|DESC|" + ID + "|yesterday";
+        final var encoded = Base64.getUrlEncoder().encodeToString(plain.getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(InvalidRequestParameterException.class,
+                () -> OfferCursor.decode(encoded, "date", Sort.Direction.DESC));
+    }
+
+    private static OfferView createOffer() {
+        final var result = new OfferView();
+        result.setId(ID);
+        result.setDate(DATE);
+        result.setBasePrice(BASE_PRICE);
+        result.setTitle(TITLE);
+        return result;
+    }
+}
@@ -0,0 +1,93 @@
+package com.intive.shopme.offer;
+
+import com.intive.shopme.model.db.DbAddress;
+import com.intive.shopme.model.db.DbCategory;
+import com.intive.shopme.model.db.DbInvoice;
+import com.intive.shopme.model.db.DbOffer;
+import com.intive.shopme.model.db.DbUser;
+import com.intive.shopme.model.db.DbVoivodeship;
+import com.intive.shopme.model.rest.Role;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Base of offer tests using database: all of them share one application context (and one H2 database), so tests
+ * must not depend on offers created by other ones.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:offer;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+abstract class OfferDatabaseTest {
+
+    static final String CATEGORY = "others";
+    static final String VOIVODESHIP = "Lodz";
+
+    @Autowired
+    protected EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    protected OfferChangeLog changeLog;
+
+    protected DbUser saveUser(DbUser user) {
+        final var entityManager = entityManagerFactory.createEntityManager();
+        entityManager.getTransaction().begin();
+        final var merged = entityManager.merge(user);
+        entityManager.getTransaction().commit();
+        entityManager.close();
+        return merged;
+    }
+
+    protected static DbUser createUser() {
+        final var result = new DbUser();
+        result.setName("foo");
+        result.setSurname("bar");
+        result.setEmail(UUID.randomUUID() + "@foo.bar");
+        result.setPassword("foo");
+        result.setPhoneNumber("123456789");
+        result.setBankAccount("12345678901234567890123456");
+        result.setAddress(createAddress());
+        result.setVoivodeship(new DbVoivodeship(VOIVODESHIP));
+        result.setInvoiceRequest(false);
+        result.addRole(Role.USER);
+        return result;
+    }
+
+    protected static DbInvoice createInvoice() {
+        final var result = new DbInvoice();
+        result.setCompanyName("foo");
+        result.setNip("123-456-78-90");
+        result.setInvoiceAddress(createAddress());
+        return result;
+    }
+
+    protected static DbAddress createAddress() {
+        final var result = new DbAddress();
+        result.setStreet("foo");
+        result.setNumber("1");
+        result.setCity("bar");
+        result.setZipCode("12-345");
+        return result;
+    }
+
+    protected static DbOffer createOffer(DbUser user, String title) {
+        final var result = new DbOffer();
+        result.setId(UUID.randomUUID());
+        result.setDate(new Date());
+        result.setTitle(title);
+        result.setCategory(new DbCategory(CATEGORY));
+        result.setBaseDescription("foo");
+        result.setBasePrice(1.0);
+        result.setUser(user);
+        result.setVoivodeship(new DbVoivodeship(VOIVODESHIP));
+        result.setCity("bar");
+        return result;
+    }
+}
@@ -0,0 +1,56 @@
+package com.intive.shopme.offer;
+
+import com.intive.shopme.model.rest.OfferEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OfferEventBufferTest {
+
+    private final OfferEventBuffer buffer = new OfferEventBuffer(4);
+
+    @Test
+    void after_should_return_events_following_given_one() {
+        publish(3);
+
+        assertThat(buffer.after(1, 10)).extracting(OfferEvent::getId).containsExactly(2L, 3L);
+        assertThat(buffer.after(3, 10)).isEmpty();
+    }
+
+    @Test
+    void after_should_return_at_most_limit_events() {
+        publish(3);
+
+        assertThat(buffer.after(0, 2)).extracting(OfferEvent::getId).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void after_should_return_null_when_following_events_have_been_overwritten() {
+        publish(6);
+
+        assertThat(buffer.after(1, 10)).isNull();
+        assertThat(buffer.after(2, 10)).extracting(OfferEvent::getId).containsExactly(3L, 4L, 5L, 6L);
+    }
+
+    @Test
+    void after_should_return_null_for_unknown_event() {
+        publish(2);
+
+        assertThat(buffer.after(5, 10)).isNull();
+    }
+
+    @Test
+    void after_should_return_null_for_negative_event_id() {
+        publish(6);
+
+        assertThat(buffer.after(-5, 10)).isNull();
+    }
+
+    private void publish(int count) {
+        for (int i = 0; i < count; i++) {
+            buffer.publish(OfferEvent.Type.CREATED, UUID.randomUUID(), "foo", null);
+        }
+    }
+}
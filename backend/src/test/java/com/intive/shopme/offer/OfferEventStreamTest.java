@@ -0,0 +1,34 @@
+package com.intive.shopme.offer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OfferEventStreamTest {
+
+    private final OfferEventStream stream = new OfferEventStream(4, 1000, 1, 1000);
+
+    @AfterEach
+    void tearDown() {
+        stream.shutdown();
+    }
+
+    @Test
+    void parseEventId_should_return_number_of_event_of_the_same_epoch() {
+        assertThat(stream.parseEventId(stream.eventId(42))).isEqualTo(42);
+    }
+
+    @Test
+    void parseEventId_should_return_unknown_id_for_event_of_other_epoch() {
+        final var otherStream = new OfferEventStream(4, 1000, 1, 1000);
+
+        assertThat(stream.parseEventId(otherStream.eventId(42))).isEqualTo(Long.MAX_VALUE);
+        assertThat(stream.parseEventId("42")).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void parseEventId_should_return_unknown_id_for_negative_number() {
+        assertThat(stream.parseEventId(stream.eventId(-5))).isEqualTo(Long.MAX_VALUE);
+    }
+}
@@ -0,0 +1,70 @@
+package com.intive.shopme.offer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OfferFacetIndexTest {
+
+    private static final UUID USER = UUID.randomUUID();
+
+    private final OfferFacetIndex index = new OfferFacetIndex(null);
+    private final IndexedOffer cheapGarden = createOffer("Koszenie trawy", 20.0, "garden", "Lodz");
+    private final IndexedOffer expensiveGarden = createOffer("Projekt ogrodu", 1500.0, "garden", "Masovian");
+    private final IndexedOffer transport = createOffer("Przeprowadzki", 150.0, "transport", "Lodz");
+
+    OfferFacetIndexTest() {
+        List.of(cheapGarden, expensiveGarden, transport).forEach(offer -> index.offerChanged(null, offer));
+    }
+
+    @Test
+    void count_should_group_all_offers_when_filter_is_empty() {
+        final var facets = index.count(OfferFilter.compile(List.of()));
+
+        assertThat(facets.getTotal()).isEqualTo(3);
+        assertThat(facets.getCategories()).isEqualTo(Map.of("garden", 2L, "transport", 1L));
+        assertThat(facets.getVoivodeships()).isEqualTo(Map.of("Lodz", 2L, "Masovian", 1L));
+        assertThat(facets.getPriceRanges()).isEqualTo(Map.of("0-50", 1L, "100-200", 1L, "1000+", 1L));
+    }
+
+    @Test
+    void count_should_group_only_offers_matching_filter() {
+        final var facets = index.count(OfferFilter.compile(List.of(OfferCriterion.voivodeship("Lodz"),
+                OfferCriterion.priceFrom(100.0))));
+
+        assertThat(facets.getTotal()).isEqualTo(1);
+        assertThat(facets.getCategories()).isEqualTo(Map.of("transport", 1L));
+    }
+
+    @Test
+    void count_should_follow_offer_changes() {
+        final var movedTransport = new IndexedOffer(transport.getId(), transport.getDate(), transport.getTitle(),
+                transport.getBasePrice(), transport.getCategory(), "Masovian", transport.getCity(), USER,
+                transport.getDescription(), transport.getSearchTerms());
+        index.offerChanged(transport, movedTransport);
+        index.offerChanged(cheapGarden, null);
+
+        final var facets = index.count(OfferFilter.compile(List.of()));
+
+        assertThat(facets.getTotal()).isEqualTo(2);
+        assertThat(facets.getVoivodeships()).isEqualTo(Map.of("Masovian", 2L));
+    }
+
+    @Test
+    void count_should_match_title_keywords() {
+        final var facets = index.count(OfferFilter.compile(List.of(OfferCriterion.titleContains("OGROD"))));
+
+        assertThat(facets.getTotal()).isEqualTo(1);
+        assertThat(facets.getCategories()).isEqualTo(Map.of("garden", 1L));
+    }
+
+    private static IndexedOffer createOffer(String title, double price, String category, String voivodeship) {
+        return new IndexedOffer(UUID.randomUUID(), new Date(), title, price, category, voivodeship, "Szczecin", USER,
+                "", " ");
+    }
+}
@@ -0,0 +1,113 @@
+package com.intive.shopme.offer;
+
+import com.intive.shopme.model.db.DbOfferRead;
+import com.intive.shopme.model.rest.OfferView;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OfferFetchPlanTest extends OfferDatabaseTest {
+
+    private static final int OFFERS_COUNT = 100;
+
+    @Autowired
+    private OfferService service;
+
+    @BeforeEach
+    void createOffersOfDifferentUsers() {
+        final var entityManager = entityManagerFactory.createEntityManager();
+        entityManager.getTransaction().begin();
+        for (int i = 0; i < OFFERS_COUNT; i++) {
+            final var user = createUser();
+            user.setInvoiceRequest(true);
+            user.setInvoice(createInvoice());
+            final var offer = entityManager.merge(createOffer(entityManager.merge(user), "foo"));
+            entityManager.persist(DbOfferRead.of(offer));
+        }
+        entityManager.getTransaction().commit();
+        entityManager.close();
+    }
+
+    @Test
+    void search_should_load_page_of_offers_with_single_statement() {
+        assertThat(countStatementsLoadingPage(10)).isEqualTo(1);
+        assertThat(countStatementsLoadingPage(OFFERS_COUNT)).isEqualTo(1);
+    }
+
+    @Test
+    void export_should_stream_all_offers_with_single_statement() {
+        final var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        final List<OfferView> offers = new ArrayList<>();
+        service.export(OfferFilter.compile(List.of()), Sort.by("date"), offers::add);
+
+        assertThat(offers.size()).isGreaterThanOrEqualTo(OFFERS_COUNT);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void getBatch_should_load_offers_in_requested_order_with_single_statement() {
+        final var ids = service.getSlice(OfferFilter.compile(List.of()), PageRequest.of(0, 3, Sort.by("date")))
+                .map(OfferView::getId)
+                .getContent();
+        final var missingId = UUID.randomUUID();
+        final var requestedIds = List.of(ids.get(2), missingId, ids.get(0), ids.get(1));
+        final var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        final var batch = service.getBatch(requestedIds);
+
+        assertThat(batch.getOffers()).extracting(OfferView::getId).containsExactly(ids.get(2), ids.get(0), ids.get(1));
+        assertThat(batch.getMissing()).containsExactly(missingId);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void getSlice_should_tell_whether_there_is_next_slice_without_counting() {
+        final var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        final var first = service.getSlice(OfferFilter.compile(List.of()), PageRequest.of(0, 10, Sort.by("date")));
+
+        assertThat(first.getNumberOfElements()).isEqualTo(10);
+        assertThat(first.hasNext()).isTrue();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void getAll_should_count_offers_matching_filter_once_for_all_pages() {
+        // a filter no other test used, so its count is not cached yet
+        final var filter = OfferFilter.compile(List.of(OfferCriterion.dateTo(new Date())));
+        final var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        final var first = service.getAll(filter, PageRequest.of(0, 10, Sort.by("date")));
+        final var firstStatements = statistics.getPrepareStatementCount();
+        final var second = service.getAll(filter, PageRequest.of(1, 10, Sort.by("date")));
+
+        assertThat(second.getTotalElements()).isEqualTo(first.getTotalElements());
+        assertThat(firstStatements).isEqualTo(2);
+        assertThat(statistics.getPrepareStatementCount() - firstStatements).isEqualTo(1);
+    }
+
+    private long countStatementsLoadingPage(int pageSize) {
+        final var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        final var offers = service.getSlice(OfferFilter.compile(List.of()), PageRequest.of(0, pageSize, Sort.by("date")));
+        offers.forEach(offer -> assertThat(offer.getEmail()).isNotNull());
+
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,78 @@
+package com.intive.shopme.offer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OfferFilterTest {
+
+    private static final OfferCriterion CATEGORY = OfferCriterion.category("others");
+    private static final OfferCriterion PRICE_FROM = OfferCriterion.priceFrom(10.0);
+    private static final OfferCriterion DATE_FROM = OfferCriterion.dateFrom(new Date(1520031600000L));
+
+    @Test
+    void compile_should_drop_duplicated_criteria() {
+        final var filter = OfferFilter.compile(List.of(CATEGORY, OfferCriterion.category("others")));
+
+        assertThat(filter).hasToString(List.of(CATEGORY).toString());
+    }
+
+    @Test
+    void compile_should_order_criteria_by_selectivity() {
+        final var filter = OfferFilter.compile(List.of(PRICE_FROM, DATE_FROM, CATEGORY));
+
+        assertThat(filter).hasToString(List.of(CATEGORY, DATE_FROM, PRICE_FROM).toString());
+    }
+
+    @Test
+    void compile_should_match_nothing_when_any_criterion_cannot_be_satisfied() {
+        final var filter = OfferFilter.compile(List.of(CATEGORY, OfferCriterion.nothing(), PRICE_FROM));
+
+        assertThat(filter.matchesNothing()).isTrue();
+    }
+
+    @Test
+    void compile_should_match_nothing_when_no_title_contains_keyword() {
+        final var filter = OfferFilter.compile(List.of(CATEGORY, OfferCriterion.titleContains("piano")),
+                new OfferTitleIndex(null), new OfferSearchTermIndex(null));
+
+        assertThat(filter.matchesNothing()).isTrue();
+        assertThat(filter).hasToString(List.of(CATEGORY, OfferCriterion.titleContains("piano")).toString());
+    }
+
+    @Test
+    void compile_should_match_nothing_when_no_offer_has_all_search_terms() {
+        final var searchTermIndex = new OfferSearchTermIndex(null);
+        searchTermIndex.put(UUID.randomUUID(), " ogrod ");
+        searchTermIndex.put(UUID.randomUUID(), " projekt ");
+        final var criteria = List.of(CATEGORY, OfferCriterion.searchTerm("ogrod"),
+                OfferCriterion.searchTerm("projekt"));
+
+        assertThat(OfferFilter.compile(criteria, new OfferTitleIndex(null), searchTermIndex).matchesNothing())
+                .isTrue();
+
+        searchTermIndex.put(UUID.randomUUID(), " ogrod projekt ");
+
+        assertThat(OfferFilter.compile(criteria, new OfferTitleIndex(null), searchTermIndex).matchesNothing())
+                .isFalse();
+    }
+
+    @Test
+    void compile_should_match_nothing_when_text_has_only_stopwords() {
+        final var params = OfferSearchParams.parse("text=oraz");
+
+        assertThat(OfferFilter.compile(params.criteria()).matchesNothing()).isTrue();
+    }
+
+    @Test
+    void key_should_not_depend_on_criteria_order() {
+        final var filter = OfferFilter.compile(List.of(PRICE_FROM, CATEGORY));
+        final var sameFilter = OfferFilter.compile(List.of(CATEGORY, PRICE_FROM, PRICE_FROM));
+
+        assertThat(filter.key()).isEqualTo(sameFilter.key());
+    }
+}
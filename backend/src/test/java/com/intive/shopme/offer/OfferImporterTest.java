@@ -0,0 +1,141 @@
+package com.intive.shopme.offer;
+
+import com.intive.shopme.model.db.DbCategory;
+import com.intive.shopme.model.db.DbOffer;
+import com.intive.shopme.model.db.DbUser;
+import com.intive.shopme.model.db.DbVoivodeship;
+import com.intive.shopme.model.rest.OfferImportResult;
+import com.intive.shopme.model.rest.OfferView;
+import com.intive.shopme.model.rest.OfferWrite;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.intive.shopme.config.AppConfig.IMPORT_BATCH_SIZE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OfferImporterTest extends OfferDatabaseTest {
+
+    @Autowired
+    private OfferImporter importer;
+
+    @Autowired
+    private OfferService service;
+
+    @Test
+    void importOffers_should_save_valid_offers_and_return_errors_of_invalid_ones() throws IOException {
+        final var since = changeLog.lastSeq();
+        final var input = offerJson("foo", CATEGORY) + "\n" +
+                offerJson("bar", "unknown") + "\n" +
+                offerJson("", CATEGORY) + "\n" +
+                offerJson("baz", CATEGORY) + "\n";
+
+        final var results = importer.importOffers(stream(input), converter(saveUser(createUser())));
+
+        assertThat(results).extracting(OfferImportResult::getIndex).containsExactly(0, 1, 2, 3);
+        assertThat(results.get(0).getErrors()).isNull();
+        assertThat(results.get(1).getErrors()).isEqualTo("Category name not known: unknown");
+        assertThat(results.get(2).getErrors()).startsWith("title");
+        assertThat(results.get(3).getErrors()).isNull();
+        assertThat(results.get(1).getId()).isNull();
+        assertThat(service.getView(results.get(0).getId()).getTitle()).isEqualTo("foo");
+        assertThat(service.getChanges(since, 10).getOffers()).extracting(OfferView::getId)
+                .containsExactly(results.get(0).getId(), results.get(3).getId());
+    }
+
+    @Test
+    void importOffers_should_accept_json_array_larger_than_batch() throws IOException {
+        final var count = IMPORT_BATCH_SIZE + 1;
+        final var input = IntStream.range(0, count)
+                .mapToObj(i -> offerJson("foo" + i, CATEGORY))
+                .collect(Collectors.joining(",", "[", "]"));
+
+        final var results = importer.importOffers(stream(input), converter(saveUser(createUser())));
+
+        assertThat(results).hasSize(count);
+        assertThat(results).allMatch(result -> result.getId() != null && result.getErrors() == null);
+        assertThat(service.getView(results.get(count - 1).getId()).getTitle()).isEqualTo("foo" + (count - 1));
+    }
+
+    @Test
+    void importOffers_should_stop_at_malformed_offer_keeping_previous_ones() throws IOException {
+        final var input = offerJson("foo", CATEGORY) + "\n{\"title\" \"baz\"}\n" + offerJson("bar", CATEGORY);
+
+        final var results = importer.importOffers(stream(input), converter(saveUser(createUser())));
+
+        assertThat(results).hasSize(2);
+        assertThat(service.getView(results.get(0).getId()).getTitle()).isEqualTo("foo");
+        assertThat(results.get(1).getId()).isNull();
+        assertThat(results.get(1).getErrors()).startsWith("Malformed offer");
+    }
+
+    @Test
+    void importOffers_should_reject_offer_which_can_not_be_mapped_and_continue() throws IOException {
+        final var input = offerJson("foo", CATEGORY) + "\n" +
+                offerJson("bar", CATEGORY).replace("\"basePrice\": 1.0", "\"basePrice\": \"abc\"") + "\n" +
+                offerJson("baz", CATEGORY);
+
+        final var results = importer.importOffers(stream(input), converter(saveUser(createUser())));
+
+        assertThat(results).extracting(OfferImportResult::getIndex).containsExactly(0, 1, 2);
+        assertThat(results.get(1).getId()).isNull();
+        assertThat(results.get(1).getErrors()).startsWith("Invalid offer");
+        assertThat(service.getView(results.get(0).getId()).getTitle()).isEqualTo("foo");
+        assertThat(service.getView(results.get(2).getId()).getTitle()).isEqualTo("baz");
+    }
+
+    @Test
+    void importOffers_should_reject_offers_of_batch_which_insert_fails() throws IOException {
+        final var user = saveUser(createUser());
+        final var id = UUID.randomUUID();
+        final var since = changeLog.lastSeq();
+        final var input = offerJson("foo", CATEGORY) + "\n" + offerJson("", CATEGORY) + "\n" +
+                offerJson("bar", CATEGORY);
+
+        // the same id for every offer, so the batch violates the primary key
+        final var results = importer.importOffers(stream(input), converter(user).andThen(offer -> {
+            offer.setId(id);
+            return offer;
+        }));
+
+        assertThat(results).extracting(OfferImportResult::getIndex).containsExactly(0, 1, 2);
+        assertThat(results).extracting(OfferImportResult::getId).containsOnlyNulls();
+        assertThat(results.get(0).getErrors()).startsWith("Offer not saved");
+        assertThat(results.get(1).getErrors()).startsWith("title");
+        assertThat(results.get(2).getErrors()).startsWith("Offer not saved");
+        assertThat(changeLog.lastSeq()).isEqualTo(since);
+    }
+
+    private static String offerJson(String title, String category) {
+        return "{\"title\": \"" + title + "\", \"category\": \"" + category + "\", \"basePrice\": 1.0, " +
+                "\"baseDescription\": \"foo\", \"voivodeship\": \"" + VOIVODESHIP + "\", \"city\": \"bar\"}";
+    }
+
+    private static ByteArrayInputStream stream(String input) {
+        return new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Function<OfferWrite, DbOffer> converter(DbUser user) {
+        return offer -> {
+            final var result = new DbOffer();
+            result.setId(UUID.randomUUID());
+            result.setDate(new Date());
+            result.setTitle(offer.getTitle());
+            result.setCategory(new DbCategory(offer.getCategory()));
+            result.setBaseDescription(offer.getBaseDescription());
+            result.setBasePrice(offer.getBasePrice());
+            result.setUser(user);
+            result.setVoivodeship(new DbVoivodeship(offer.getVoivodeship()));
+            result.setCity(offer.getCity());
+            return result;
+        };
+    }
+}
@@ -0,0 +1,67 @@
+package com.intive.shopme.offer;
+
+import com.intive.shopme.model.rest.OfferView;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OfferKeysetPagingTest extends OfferDatabaseTest {
+
+    private static final int OFFERS_COUNT = 7;
+    private static final int PAGE_SIZE = 2;
+
+    @Autowired
+    private OfferService service;
+
+    /**
+     * Offers have only two distinct values of every sort property, so most pages end inside a run of equal keys.
+     */
+    @ParameterizedTest
+    @CsvSource({"date, ASC", "date, DESC", "basePrice, ASC", "basePrice, DESC", "title, ASC", "title, DESC"})
+    void cursor_should_page_through_equal_sort_keys_without_gaps_or_repeats(String sort, Sort.Direction direction) {
+        final var user = saveUser(createUser());
+        final var date = new Date();
+        for (int i = 0; i < OFFERS_COUNT; i++) {
+            final var offer = createOffer(user, i % 2 == 0 ? "foo" : "bar");
+            offer.setDate(new Date(date.getTime() + i % 2));
+            offer.setBasePrice(i % 2 == 0 ? 1.0 : 2.0);
+            service.createOrUpdate(offer);
+        }
+        final var sortBy = Sort.by(direction, sort).and(Sort.by(direction, "id"));
+        final var all = service.getSlice(filter(user.getId(), null), PageRequest.of(0, OFFERS_COUNT, sortBy))
+                .map(OfferView::getId).getContent();
+
+        final List<UUID> paged = new ArrayList<>();
+        OfferCursor cursor = null;
+        for (int page = 0; page <= OFFERS_COUNT / PAGE_SIZE; page++) {
+            final var slice = service.getSlice(filter(user.getId(), cursor), PageRequest.of(0, PAGE_SIZE, sortBy));
+            slice.forEach(offer -> paged.add(offer.getId()));
+            if (!slice.hasNext()) {
+                break;
+            }
+            final var last = slice.getContent().get(slice.getNumberOfElements() - 1);
+            cursor = OfferCursor.decode(OfferCursor.after(last, sort, direction).encode(), sort, direction);
+        }
+
+        assertThat(all).hasSize(OFFERS_COUNT);
+        assertThat(paged).containsExactlyElementsOf(all);
+    }
+
+    private static OfferFilter filter(UUID userId, OfferCursor cursor) {
+        final List<OfferCriterion> criteria = new ArrayList<>();
+        criteria.add(OfferCriterion.user(userId));
+        if (cursor != null) {
+            criteria.add(OfferCriterion.after(cursor));
+        }
+        return OfferFilter.compile(criteria);
+    }
+}
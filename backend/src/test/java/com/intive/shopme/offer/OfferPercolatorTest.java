@@ -0,0 +1,54 @@
+package com.intive.shopme.offer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OfferPercolatorTest {
+
+    private static final UUID OWNER = UUID.randomUUID();
+    private static final UUID SUBSCRIBER = UUID.randomUUID();
+
+    private final OfferPercolator percolator = new OfferPercolator(null, null);
+
+    @Test
+    void match_should_return_saved_searches_matching_offer() {
+        final var garden = register("category=garden&voivodeship=Lodz");
+        final var snow = register("title=odśnieżanie&priceMax=100");
+        register("category=transport");
+        register("voivodeship=Lodz&priceMin=500");
+
+        assertThat(percolator.match(createOffer("Odśnieżanie ogródka", "garden", 50.0)))
+                .extracting(OfferPercolator.SavedQuery::getId)
+                .containsExactlyInAnyOrder(garden, snow);
+    }
+
+    @Test
+    void match_should_skip_saved_searches_of_offer_owner() {
+        percolator.register(UUID.randomUUID(), OWNER, OfferPercolator.compile("category=garden"));
+
+        assertThat(percolator.match(createOffer("Koszenie trawy", "garden", 50.0))).isEmpty();
+    }
+
+    @Test
+    void match_should_skip_unregistered_saved_searches() {
+        final var garden = register("category=garden");
+        percolator.unregister(garden);
+
+        assertThat(percolator.match(createOffer("Koszenie trawy", "garden", 50.0))).isEmpty();
+    }
+
+    private UUID register(String query) {
+        final var id = UUID.randomUUID();
+        percolator.register(id, SUBSCRIBER, OfferPercolator.compile(query));
+        return id;
+    }
+
+    private static IndexedOffer createOffer(String title, String category, Double basePrice) {
+        return new IndexedOffer(UUID.randomUUID(), new Date(), title, basePrice, category, "Lodz", "Lodz", OWNER,
+                "", " ");
+    }
+}
@@ -0,0 +1,56 @@
+package com.intive.shopme.offer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OfferRelevanceIndexTest {
+
+    private final OfferRelevanceIndex index = new OfferRelevanceIndex(null);
+    private final IndexedOffer gardenInDescription = createOffer("Usługi", "Koszenie trawy, ogród", 3);
+    private final IndexedOffer gardenInTitle = createOffer("Ogród", "Koszenie trawy", 2);
+    private final IndexedOffer gardenEverywhere = createOffer("Ogród", "Projekt ogrodu, ogród zimowy", 1);
+    private final IndexedOffer piano = createOffer("Lekcje pianina", "Nauka gry", 4);
+    private final List<UUID> all = List.of(gardenInDescription.getId(), gardenInTitle.getId(),
+            gardenEverywhere.getId(), piano.getId());
+
+    OfferRelevanceIndexTest() {
+        List.of(gardenInDescription, gardenInTitle, gardenEverywhere, piano)
+                .forEach(offer -> index.offerChanged(null, offer));
+    }
+
+    @Test
+    void top_should_order_offers_by_relevance() {
+        assertThat(index.top(all, List.of("ogr"), 3))
+                .containsExactly(gardenEverywhere.getId(), gardenInTitle.getId(), gardenInDescription.getId());
+    }
+
+    @Test
+    void top_should_order_equally_relevant_offers_by_date() {
+        assertThat(index.top(all, List.of("nieistniejące"), 4))
+                .containsExactly(piano.getId(), gardenInDescription.getId(), gardenInTitle.getId(),
+                        gardenEverywhere.getId());
+    }
+
+    @Test
+    void top_should_rank_only_candidates() {
+        assertThat(index.top(List.of(gardenInTitle.getId(), piano.getId()), List.of("ogród"), 1))
+                .containsExactly(gardenInTitle.getId());
+    }
+
+    @Test
+    void top_should_not_return_removed_offer() {
+        index.offerChanged(gardenEverywhere, null);
+
+        assertThat(index.top(all, List.of("ogr"), 1)).containsExactly(gardenInTitle.getId());
+    }
+
+    private static IndexedOffer createOffer(String title, String description, long date) {
+        return new IndexedOffer(UUID.randomUUID(), new Date(date), title, 1.0, "garden", "Lodz", "Szczecin",
+                UUID.randomUUID(), description, OfferAnalyzer.searchTerms(title, description));
+    }
+}
@@ -0,0 +1,68 @@
+package com.intive.shopme.offer;
+
+import com.intive.shopme.model.rest.OfferView;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OfferResultCacheTest {
+
+    private static final OfferFilter GARDEN = OfferFilter.compile(List.of(OfferCriterion.category("garden")));
+    private static final OfferFilter TRANSPORT = OfferFilter.compile(List.of(OfferCriterion.category("transport")));
+
+    private final OfferResultCache cache = new OfferResultCache(60000, 1000, new SimpleMeterRegistry());
+    private final AtomicInteger searches = new AtomicInteger();
+
+    @Test
+    void get_should_search_once_for_filters_with_same_criteria() {
+        search(OfferFilter.compile(List.of(OfferCriterion.category("garden"), OfferCriterion.priceFrom(10.0))));
+        search(OfferFilter.compile(List.of(OfferCriterion.priceFrom(10.0), OfferCriterion.category("garden"))));
+
+        assertThat(searches.get()).isEqualTo(1);
+    }
+
+    @Test
+    void offer_change_should_invalidate_only_results_of_matching_filters() {
+        search(GARDEN);
+        search(TRANSPORT);
+
+        cache.offerChanged(null, createOffer("garden"));
+        search(GARDEN);
+        search(TRANSPORT);
+
+        assertThat(searches.get()).isEqualTo(3);
+    }
+
+    @Test
+    void offer_change_should_invalidate_results_of_filters_matching_previous_version() {
+        search(GARDEN);
+
+        cache.offerChanged(createOffer("garden"), createOffer("transport"));
+        search(GARDEN);
+
+        assertThat(searches.get()).isEqualTo(2);
+    }
+
+    private void search(OfferFilter filter) {
+        cache.get(filter, PageRequest.of(0, 10), this::countedSearch);
+    }
+
+    private Page<OfferView> countedSearch() {
+        searches.incrementAndGet();
+        return new PageImpl<>(List.of(new OfferView()));
+    }
+
+    private static IndexedOffer createOffer(String category) {
+        return new IndexedOffer(UUID.randomUUID(), new Date(), "foo", 1.0, category, "Lodz", "bar",
+                UUID.randomUUID(), "", " ");
+    }
+}
@@ -0,0 +1,78 @@
+package com.intive.shopme.offer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OfferTitleIndexTest {
+
+    private static final UUID SNOW = UUID.randomUUID();
+    private static final UUID SNOW_AND_GARDEN = UUID.randomUUID();
+    private static final UUID PIANO = UUID.randomUUID();
+
+    private final OfferTitleIndex index = createIndex();
+
+    @Test
+    void find_should_match_keyword_being_part_of_title_term() {
+        assertThat(index.find(List.of("nieżanie"))).containsExactlyInAnyOrder(SNOW, SNOW_AND_GARDEN);
+    }
+
+    @Test
+    void find_should_match_keyword_shorter_than_indexed_grams() {
+        assertThat(index.find(List.of("an"))).containsExactlyInAnyOrder(SNOW, SNOW_AND_GARDEN, PIANO);
+    }
+
+    @Test
+    void find_should_not_ignore_diacritics_of_keyword() {
+        assertThat(index.find(List.of("snie"))).isEmpty();
+    }
+
+    @Test
+    void find_should_return_offers_containing_all_keywords() {
+        assertThat(index.find(List.of("odśnieżanie", "ogród"))).containsExactly(SNOW_AND_GARDEN);
+    }
+
+    @Test
+    void find_should_not_match_keyword_spanning_separated_terms() {
+        assertThat(index.find(List.of("lekcjepiano"))).isEmpty();
+    }
+
+    @Test
+    void find_should_not_return_removed_offer() {
+        index.remove(SNOW);
+
+        assertThat(index.find(List.of("odśnieżanie"))).containsExactly(SNOW_AND_GARDEN);
+    }
+
+    @Test
+    void put_should_replace_terms_of_updated_offer() {
+        index.put(PIANO, "Lekcje gitary");
+
+        assertThat(index.find(List.of("piano"))).isEmpty();
+        assertThat(index.find(List.of("gitary"))).containsExactly(PIANO);
+    }
+
+    @Test
+    void termsSimilar_should_match_terms_with_typos_and_without_diacritics() {
+        assertThat(index.termsSimilar("odsnierzanie", 2)).containsExactly("odśnieżanie");
+        assertThat(index.termsSimilar("piana", 1)).containsExactly("piano");
+    }
+
+    @Test
+    void termsSimilar_should_not_return_terms_of_removed_offers() {
+        index.remove(PIANO);
+
+        assertThat(index.termsSimilar("piana", 1)).isEmpty();
+    }
+
+    private static OfferTitleIndex createIndex() {
+        final var result = new OfferTitleIndex(null);
+        result.put(SNOW, "Odśnieżanie Niebuszewo");
+        result.put(SNOW_AND_GARDEN, "Odśnieżanie, ogród");
+        result.put(PIANO, "Lekcje-piano");
+        return result;
+    }
+}
@@ -0,0 +1,62 @@
+package com.intive.shopme.offer;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrefixTreeTest {
+
+    private final PrefixTree tree = createTree();
+
+    @Test
+    void complete_should_return_most_frequent_keys_first() {
+        assertThat(tree.complete("od", 10)).containsExactly("odśnieżanie", "odśnieżanie niebuszewo", "odkurzanie");
+    }
+
+    @Test
+    void complete_should_return_at_most_limit_keys() {
+        assertThat(tree.complete("o", 2)).containsExactly("odśnieżanie", "odśnieżanie niebuszewo");
+    }
+
+    @Test
+    void complete_should_return_equally_frequent_keys_in_key_order() {
+        assertThat(tree.complete("", 4)).containsExactly("odśnieżanie", "odśnieżanie niebuszewo", "lekcje gitary",
+                "odkurzanie");
+    }
+
+    @Test
+    void complete_should_return_nothing_for_unknown_prefix() {
+        assertThat(tree.complete("piano", 10)).isEmpty();
+    }
+
+    @Test
+    void remove_should_decrease_key_weight() {
+        tree.remove("odśnieżanie");
+        tree.remove("odśnieżanie");
+        tree.remove("odśnieżanie");
+
+        assertThat(tree.complete("od", 10)).containsExactly("odśnieżanie niebuszewo", "odkurzanie");
+    }
+
+    @Test
+    void remove_should_lower_weight_of_subtree() {
+        tree.remove("odśnieżanie niebuszewo");
+        tree.remove("odśnieżanie niebuszewo");
+        tree.remove("odśnieżanie");
+        tree.remove("odśnieżanie");
+
+        assertThat(tree.complete("", 2)).containsExactly("lekcje gitary", "odkurzanie");
+    }
+
+    private static PrefixTree createTree() {
+        final var result = new PrefixTree();
+        result.add("odśnieżanie");
+        result.add("odśnieżanie");
+        result.add("odśnieżanie");
+        result.add("odśnieżanie niebuszewo");
+        result.add("odśnieżanie niebuszewo");
+        result.add("odkurzanie");
+        result.add("lekcje gitary");
+        return result;
+    }
+}
@@ -0,0 +1,68 @@
+package com.intive.shopme.offer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SseSenderTest {
+
+    private static final long SEND_TIMEOUT = 50;
+
+    private final SseSender sender = new SseSender("test-sender", 2, SEND_TIMEOUT);
+    private final CountDownLatch unblocked = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        unblocked.countDown();
+        sender.shutdown();
+    }
+
+    @Test
+    void flush_should_not_wait_for_stream_which_is_not_read() throws InterruptedException {
+        final var blockedWritten = new CountDownLatch(1);
+        sender.flush(sender.open(new SseEmitter(), emitter -> {
+            blockedWritten.countDown();
+            awaitUnblocked();
+            return false;
+        }, () -> { }));
+        blockedWritten.await(1, TimeUnit.SECONDS);
+
+        final var written = new CountDownLatch(1);
+        sender.flush(sender.open(new SseEmitter(), emitter -> {
+            written.countDown();
+            return false;
+        }, () -> { }));
+
+        assertThat(written.await(1, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void flush_should_drop_stream_blocked_longer_than_send_timeout() throws InterruptedException {
+        final var blockedWritten = new CountDownLatch(1);
+        final var closed = new CountDownLatch(1);
+        sender.flush(sender.open(new SseEmitter(), emitter -> {
+            blockedWritten.countDown();
+            awaitUnblocked();
+            return false;
+        }, closed::countDown));
+        blockedWritten.await(1, TimeUnit.SECONDS);
+
+        Thread.sleep(SEND_TIMEOUT * 2);
+        sender.flushAll();
+
+        assertThat(closed.await(0, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private void awaitUnblocked() {
+        try {
+            unblocked.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.intive.shopme.registration;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PasswordHashingExecutorTest {
+
+    private static final long RETRY_AFTER = 3;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PasswordHashingExecutor executor = new PasswordHashingExecutor(1, 1, 1, RETRY_AFTER, meterRegistry);
+    private final CountDownLatch hashing = new CountDownLatch(1);
+
+    @AfterEach
+    void shutdown() {
+        hashing.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void submit_should_reject_task_when_queue_is_full() {
+        final var running = executor.submit(this::awaitHashing);
+        final var queued = executor.submit(() -> true);
+
+        final var exception = assertThrows(PasswordHashingBusyException.class, () -> executor.submit(() -> true));
+
+        assertThat(exception.getRetryAfter()).isEqualTo(RETRY_AFTER);
+        assertThat(meterRegistry.counter(PasswordHashingExecutor.REJECTED_METRIC_NAME).count()).isEqualTo(1);
+        hashing.countDown();
+        assertThat(running.join()).isTrue();
+        assertThat(queued.join()).isTrue();
+    }
+
+    private boolean awaitHashing() {
+        try {
+            hashing.await();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.intive.shopme.registration;
+
+import com.intive.shopme.model.db.DbRevokedToken;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.Date;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:revoked-token-purge;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "jwt.revoked-tokens-purge-batch-size=2"
+})
+class RevokedTokenPurgeTest {
+
+    private static final long HOUR = 3600000;
+
+    @Autowired
+    private RevokedTokenPurge purge;
+
+    @Autowired
+    private RevokedTokenRepository repository;
+
+    @Test
+    void removeExpiredTokens_should_remove_all_expired_tokens_in_batches() {
+        final var now = System.currentTimeMillis();
+        repository.saveAll(IntStream.range(0, 5)
+                .mapToObj(i -> new DbRevokedToken(UUID.randomUUID(), new Date(now - HOUR - i)))
+                .collect(Collectors.toList()));
+        final var valid = repository.save(new DbRevokedToken(UUID.randomUUID(), new Date(now + HOUR)));
+
+        assertThat(purge.removeExpiredTokens()).isEqualTo(5);
+        assertThat(repository.findAll()).extracting(DbRevokedToken::getId).containsExactly(valid.getId());
+    }
+}
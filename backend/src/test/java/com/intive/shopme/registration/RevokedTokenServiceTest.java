@@ -0,0 +1,79 @@
+package com.intive.shopme.registration;
+
+import com.intive.shopme.model.db.DbRevokedToken;
+import com.intive.shopme.model.rest.UserContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// the same context as RevokedTokenPurgeTest
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:revoked-token-purge;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "jwt.revoked-tokens-purge-batch-size=2"
+})
+class RevokedTokenServiceTest {
+
+    private static final long HOUR = 3600000;
+
+    @Autowired
+    private RevokedTokenService service;
+
+    @Autowired
+    private RevokedTokenRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void refresh_should_add_tokens_revoked_by_other_instance_since_previous_refresh() {
+        service.refresh();
+        final var token = repository.save(
+                new DbRevokedToken(UUID.randomUUID(), new Date(System.currentTimeMillis() + HOUR)));
+        final var userContext = userContext(token);
+
+        assertThat(service.isRevoked(userContext)).isFalse();
+        service.refresh();
+        assertThat(service.isRevoked(userContext)).isTrue();
+    }
+
+    @Test
+    void logout_should_revoke_token_once_committed_and_keep_it_revoked_after_refresh() {
+        final var token = new DbRevokedToken(UUID.randomUUID(), new Date(System.currentTimeMillis() + HOUR));
+
+        service.logout(token);
+
+        assertThat(service.isRevoked(userContext(token))).isTrue();
+        service.refresh();
+        assertThat(service.isRevoked(userContext(token))).isTrue();
+    }
+
+    @Test
+    void logout_should_not_revoke_token_when_rolled_back() {
+        final var token = new DbRevokedToken(UUID.randomUUID(), new Date(System.currentTimeMillis() + HOUR));
+
+        new TransactionTemplate(transactionManager).execute(status -> {
+            service.logout(token);
+            status.setRollbackOnly();
+            return null;
+        });
+
+        assertThat(service.isRevoked(userContext(token))).isFalse();
+        service.refresh();
+        assertThat(service.isRevoked(userContext(token))).isFalse();
+    }
+
+    private static UserContext userContext(DbRevokedToken token) {
+        return new UserContext(token.getUserId(), "foo", Set.of(), token.getExpirationDate());
+    }
+}
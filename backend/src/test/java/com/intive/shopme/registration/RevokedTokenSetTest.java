@@ -0,0 +1,54 @@
+package com.intive.shopme.registration;
+
+import com.intive.shopme.model.db.DbRevokedToken;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RevokedTokenSetTest {
+
+    private static final UUID USER = UUID.randomUUID();
+    private static final long EXPIRATION = 1_600_000_000_000L;
+
+    @Test
+    void contains_should_match_both_user_and_expiration() {
+        final var tokens = RevokedTokenSet.EMPTY.with(USER, EXPIRATION);
+
+        assertThat(tokens.contains(USER, EXPIRATION)).isTrue();
+        assertThat(tokens.contains(USER, EXPIRATION + 1000)).isFalse();
+        assertThat(tokens.contains(UUID.randomUUID(), EXPIRATION)).isFalse();
+        assertThat(RevokedTokenSet.EMPTY.contains(USER, EXPIRATION)).isFalse();
+    }
+
+    @Test
+    void merge_should_keep_all_not_expired_tokens_once() {
+        final var revoked = IntStream.range(0, 1000)
+                .mapToObj(i -> new DbRevokedToken(UUID.randomUUID(), new Date(EXPIRATION + i)))
+                .collect(Collectors.toList());
+
+        final var tokens = RevokedTokenSet.EMPTY.with(USER, EXPIRATION)
+                .merge(revoked, 0)
+                .merge(revoked, 0);
+
+        assertThat(tokens.size()).isEqualTo(revoked.size() + 1);
+        assertThat(revoked).allMatch(token -> tokens.contains(token.getUserId(), token.getExpirationDate().getTime()));
+        assertThat(tokens.contains(USER, EXPIRATION)).isTrue();
+    }
+
+    @Test
+    void merge_should_drop_expired_tokens() {
+        final var later = new DbRevokedToken(UUID.randomUUID(), new Date(EXPIRATION + 1000));
+
+        final var tokens = RevokedTokenSet.EMPTY.with(USER, EXPIRATION).merge(List.of(later), EXPIRATION);
+
+        assertThat(tokens.size()).isEqualTo(1);
+        assertThat(tokens.contains(USER, EXPIRATION)).isFalse();
+        assertThat(tokens.contains(later.getUserId(), EXPIRATION + 1000)).isTrue();
+    }
+}
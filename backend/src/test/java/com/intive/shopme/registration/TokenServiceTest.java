@@ -1,10 +1,13 @@
 package com.intive.shopme.registration;
 
+import com.intive.shopme.config.security.CalibratedPasswordEncoder;
 import com.intive.shopme.model.db.DbUser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -14,11 +17,21 @@ class TokenServiceTest {
 
     private static final UUID ID = UUID.randomUUID();
     private static final String CORRECT_PASSWORD = "foo";
-    private final TokenService service = new TokenService(PASSWORD_ENCODER, 2000000, "secret");
+    private static final int STRENGTH = 5;
+    private static final CalibratedPasswordEncoder PASSWORD_ENCODER =
+            new CalibratedPasswordEncoder(STRENGTH, new SimpleMeterRegistry());
+
+    private final Map<UUID, String> updatedPasswords = new HashMap<>();
+    private final TokenService service = new TokenService(PASSWORD_ENCODER,
+            new PasswordHashingExecutor(1, 10, 1, 1, new SimpleMeterRegistry()), createUserService(), 2000000,
+            "secret");
 
     @Test
     void should_throw_badCredentialsException_when_password_is_invalid() {
-        assertThrows(BadCredentialsException.class, () -> service.exchangePasswordForToken(createUser(), "invalidPassword"));
+        final var token = service.exchangePasswordForToken(createUser(PASSWORD_ENCODER), "invalidPassword");
+
+        assertThat(token.handle((result, exception) -> exception).join())
+                .isExactlyInstanceOf(BadCredentialsException.class);
     }
 
     @Test
@@ -28,25 +41,44 @@ class TokenServiceTest {
 
     @Test
     void should_return_token() {
-        assertThat(service.exchangePasswordForToken(createUser(), CORRECT_PASSWORD)).isNotEmpty();
+        assertThat(service.exchangePasswordForToken(createUser(PASSWORD_ENCODER), CORRECT_PASSWORD).join())
+                .isNotEmpty();
+        assertThat(updatedPasswords).isEmpty();
+    }
+
+    @Test
+    void should_rehash_password_hashed_with_lower_strength() {
+        final var user = createUser(new CalibratedPasswordEncoder(STRENGTH - 1, new SimpleMeterRegistry()));
+
+        service.exchangePasswordForToken(user, CORRECT_PASSWORD).join();
+
+        assertThat(updatedPasswords).containsOnlyKeys(ID);
+        assertThat(PASSWORD_ENCODER.upgradeEncoding(updatedPasswords.get(ID))).isFalse();
+        assertThat(PASSWORD_ENCODER.matches(CORRECT_PASSWORD, updatedPasswords.get(ID))).isTrue();
     }
 
-    private static final PasswordEncoder PASSWORD_ENCODER = new PasswordEncoder() {
+    @Test
+    void should_not_rehash_password_hashed_with_higher_strength() {
+        final var user = createUser(new CalibratedPasswordEncoder(STRENGTH + 1, new SimpleMeterRegistry()));
+
+        service.exchangePasswordForToken(user, CORRECT_PASSWORD).join();
 
-        @Override
-        public String encode(CharSequence charSequence) {
-            return "foo";
-        }
+        assertThat(updatedPasswords).isEmpty();
+    }
+
+    private UserService createUserService() {
+        return new UserService(null, null) {
 
-        @Override
-        public boolean matches(CharSequence charSequence, String s) {
-            return s.contentEquals(charSequence);
-        }
-    };
+            @Override
+            public void updatePassword(UUID id, String password) {
+                updatedPasswords.put(id, password);
+            }
+        };
+    }
 
-    private DbUser createUser() {
+    private static DbUser createUser(CalibratedPasswordEncoder passwordEncoder) {
         return DbUser.builder()
-                .password(CORRECT_PASSWORD)
+                .password(passwordEncoder.encode(CORRECT_PASSWORD))
                 .email("foo")
                 .id(ID).build();
     }
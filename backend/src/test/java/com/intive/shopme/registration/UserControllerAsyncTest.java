@@ -0,0 +1,111 @@
+package com.intive.shopme.registration;
+
+import com.intive.shopme.WebTierTest;
+import com.intive.shopme.model.db.DbUser;
+import com.intive.shopme.model.rest.UserCredentials;
+import com.intive.shopme.offer.OfferService;
+import com.intive.shopme.offer.SavedSearchService;
+import com.intive.shopme.voivodeship.VoivodeshipValidator;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static com.intive.shopme.config.ApiUrl.USERS;
+import static com.intive.shopme.config.ApiUrl.USERS_LOGIN;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = UserController.class, secure = false)
+class UserControllerAsyncTest extends WebTierTest {
+
+    private static final String EMAIL = "foo@bar.baz";
+    private static final long RETRY_AFTER = 3;
+
+    @MockBean
+    private UserService service;
+
+    @MockBean
+    private OfferService offerService;
+
+    @MockBean
+    private SavedSearchService savedSearchService;
+
+    @MockBean
+    private ValidInvoiceIfInvoiceRequestedValidator invoiceRequestedValidator;
+
+    @MockBean
+    private VoivodeshipValidator voivodeshipValidator;
+
+    @MockBean
+    private EmailValidator emailValidator;
+
+    @MockBean
+    private PhoneValidator phoneValidator;
+
+    @MockBean
+    private PasswordEncoder passwordEncoder;
+
+    @MockBean
+    private TokenService tokenService;
+
+    @MockBean
+    private RevokedTokenService revokedTokenService;
+
+    @MockBean
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Test
+    void login_should_return_401_when_password_is_verified_as_wrong() throws Exception {
+        when(service.findOneByEmail(EMAIL)).thenReturn(createUser());
+        // failed in an asynchronous stage, so wrapped in CompletionException like a real verification
+        final CompletableFuture<String> token = CompletableFuture.supplyAsync(() -> {
+            throw new BadCredentialsException("Incorrect email and/or password");
+        });
+        when(tokenService.exchangePasswordForToken(any(), anyString())).thenReturn(token);
+
+        final var result = mockMvc.perform(login())
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void login_should_return_503_with_retry_after_when_hashing_queue_is_full() throws Exception {
+        when(service.findOneByEmail(EMAIL)).thenReturn(createUser());
+        when(tokenService.exchangePasswordForToken(any(), anyString()))
+                .thenThrow(new PasswordHashingBusyException(RETRY_AFTER));
+
+        mockMvc.perform(login())
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, String.valueOf(RETRY_AFTER)));
+    }
+
+    private static RequestBuilder login() throws Exception {
+        return post(USERS + "/" + USERS_LOGIN)
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content(convertToJsonString(new UserCredentials(EMAIL, "wrong")));
+    }
+
+    private static DbUser createUser() {
+        final var result = new DbUser();
+        result.setId(UUID.randomUUID());
+        result.setEmail(EMAIL);
+        return result;
+    }
+}